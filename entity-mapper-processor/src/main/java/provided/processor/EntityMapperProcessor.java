@@ -0,0 +1,344 @@
+/**
+ * 
+ */
+package provided.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates an implementation of provided.util.EntityMapper for every class annotated with
+ * provided.util.MappedEntity, and lists the generated classes in
+ * META-INF/services/provided.util.EntityMapper so they can be found with a ServiceLoader.
+ * 
+ * The generated row mapper reads each field with the typed ResultSet getter for its type and sets
+ * it with the entity's setter, and the generated column binders read the field with its getter and
+ * bind it with the matching ParameterBinder. No reflection is used at run time.
+ * 
+ * This processor is built as its own module and doesn't depend on the application, so it refers to
+ * the classes in provided.util by name only. The application's pom.xml puts it on the annotation
+ * processor path, so it is not part of the application's jar.
+ * 
+ * The generated classes are marked with javax.annotation.processing.Generated. This processor
+ * claims that annotation too, so javac's -Xlint:processing doesn't warn that nothing processed it.
+ * 
+ * @author Promineo
+ *
+ */
+@SupportedAnnotationTypes({EntityMapperProcessor.MAPPED_ENTITY, EntityMapperProcessor.GENERATED})
+public class EntityMapperProcessor extends AbstractProcessor {
+  static final String MAPPED_ENTITY = "provided.util.MappedEntity";
+  static final String GENERATED = "javax.annotation.processing.Generated";
+
+  private static final String SERVICE_FILE = "META-INF/services/provided.util.EntityMapper";
+  private static final String SUFFIX = "_EntityMapper";
+
+  /*
+   * How each supported field type is read from a result set: {type, getter, null check, binder}. A
+   * null check of "wasNull" means the getter returns a primitive and ResultSet.wasNull() tells
+   * whether the column was null.
+   */
+  // @formatter:off
+  private static final String[][] TYPES = {
+      { "java.lang.Integer", "rs.getInt(%s)", "wasNull", "INTEGER" },
+      { "java.lang.Long", "rs.getLong(%s)", "wasNull", "LONG" },
+      { "java.lang.Double", "rs.getDouble(%s)", "wasNull", "DOUBLE" },
+      { "java.lang.Boolean", "rs.getBoolean(%s)", "wasNull", "BOOLEAN" },
+      { "java.lang.String", "rs.getString(%s)", "null", "STRING" },
+      { "java.math.BigDecimal", "rs.getBigDecimal(%s)", "null", "DECIMAL" },
+      { "java.time.LocalDate", "rs.getObject(%s, java.time.LocalDate.class)", "null", "LOCAL_DATE" },
+      { "java.time.LocalDateTime", "rs.getObject(%s, java.time.LocalDateTime.class)", "null", "LOCAL_DATE_TIME" },
+      { "java.time.LocalTime", "rs.getObject(%s, java.time.LocalTime.class)", "null", "LOCAL_TIME" }
+  };
+  // @formatter:on
+
+  private final Set<String> generated = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement annotation = processingEnv.getElementUtils().getTypeElement(MAPPED_ENTITY);
+
+    if(annotation != null) {
+      for(TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+        generateMapper(entity);
+      }
+    }
+
+    if(roundEnv.processingOver() && !generated.isEmpty()) {
+      writeServiceFile();
+    }
+
+    return true;
+  }
+
+  /**
+   * Writes the mapper of one entity class. Errors are reported against the entity or field that
+   * caused them.
+   */
+  private void generateMapper(TypeElement entity) {
+    String entityName = entity.getQualifiedName().toString();
+    String packageName =
+        processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+    String simpleName = entity.getSimpleName() + SUFFIX;
+    String afterLoad = afterLoad(entity);
+    List<MappedField> fields = new ArrayList<>();
+
+    for(VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+      Set<Modifier> modifiers = field.getModifiers();
+
+      if(modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+          || isCollection(field.asType())) {
+        continue;
+      }
+
+      MappedField mapped = mappedField(entity, field);
+
+      if(mapped == null) {
+        return;
+      }
+
+      fields.add(mapped);
+    }
+
+    StringBuilder src = new StringBuilder();
+
+    src.append("package ").append(packageName).append(";\n\n");
+    src.append("import java.sql.ResultSetMetaData;\n");
+    src.append("import java.sql.SQLException;\n");
+    src.append("import java.util.Map;\n");
+    src.append("import provided.util.ColumnBinder;\n");
+    src.append("import provided.util.EntityMapper;\n");
+    src.append("import provided.util.ParameterBinder;\n");
+    src.append("import provided.util.RowMapper;\n\n");
+    src.append("/**\n * The generated mapper of {@link ").append(entityName).append("}.\n */\n");
+    src.append("@").append(GENERATED).append("(\"").append(getClass().getName()).append("\")\n");
+    src.append("public final class ").append(simpleName).append(" implements EntityMapper<")
+        .append(entityName).append("> {\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public Class<").append(entityName).append("> entityType() {\n");
+    src.append("    return ").append(entityName).append(".class;\n");
+    src.append("  }\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public RowMapper<").append(entityName)
+        .append("> rowMapper(ResultSetMetaData metaData) throws SQLException {\n");
+    src.append("    Map<String, Integer> columns = EntityMapper.columnIndexes(metaData);\n");
+
+    for(MappedField field : fields) {
+      src.append("    int ").append(field.name).append("Column = columns.getOrDefault(\"")
+          .append(field.column).append("\", 0);\n");
+    }
+
+    src.append("\n    return rs -> {\n");
+    src.append("      ").append(entityName).append(" entity = new ").append(entityName).append("();\n");
+
+    for(MappedField field : fields) {
+      String column = field.name + "Column";
+
+      src.append("\n      if(").append(column).append(" > 0) {\n");
+      src.append("        var value = ").append(String.format(field.type[1], column)).append(";\n\n");
+      src.append("        if(").append(field.type[2].equals("wasNull") ? "!rs.wasNull()" : "value != null")
+          .append(") {\n");
+      src.append("          entity.").append(field.setter).append("(value);\n");
+      src.append("        }\n");
+      src.append("      }\n");
+    }
+
+    if(!afterLoad.isEmpty()) {
+      src.append("\n      entity.").append(afterLoad).append("();\n");
+    }
+
+    src.append("      return entity;\n");
+    src.append("    };\n");
+    src.append("  }\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public ColumnBinder<").append(entityName).append("> columnBinder(String column) {\n");
+    src.append("    switch(column) {\n");
+
+    for(MappedField field : fields) {
+      src.append("      case \"").append(field.column).append("\":\n");
+      src.append("        return (stmt, parameterIndex, entity) -> ParameterBinder.").append(field.type[3])
+          .append(".bind(stmt, parameterIndex, entity.").append(field.getter).append("());\n");
+    }
+
+    src.append("      default:\n");
+    src.append("        return null;\n");
+    src.append("    }\n");
+    src.append("  }\n");
+    src.append("}\n");
+
+    try {
+      String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+      try(Writer writer = processingEnv.getFiler().createSourceFile(className, entity).openWriter()) {
+        writer.write(src.toString());
+      }
+
+      generated.add(className);
+    }
+    catch(IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Unable to write the entity mapper: " + e, entity);
+    }
+  }
+
+  /**
+   * Describes how a field is read and bound, or reports an error and returns null if the field's
+   * type is not supported or it has no public getter and setter.
+   */
+  private MappedField mappedField(TypeElement entity, VariableElement field) {
+    String typeName = field.asType().toString();
+    String[] type = null;
+
+    for(String[] candidate : TYPES) {
+      if(candidate[0].equals(typeName)) {
+        type = candidate;
+      }
+    }
+
+    if(type == null) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Unsupported field type for a mapped entity: " + typeName, field);
+      return null;
+    }
+
+    String name = field.getSimpleName().toString();
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    String setter = "set" + capitalized;
+    String getter = typeName.equals("java.lang.Boolean") && hasMethod(entity, "is" + capitalized, 0)
+        ? "is" + capitalized
+        : "get" + capitalized;
+
+    if(!hasMethod(entity, setter, 1) || !hasMethod(entity, getter, 0)) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "A mapped field needs a public " + getter + "() and " + setter + "()", field);
+      return null;
+    }
+
+    return new MappedField(name, camelCaseToSnakeCase(name), type, getter, setter);
+  }
+
+  private boolean hasMethod(TypeElement entity, String name, int parameters) {
+    for(ExecutableElement method : ElementFilter
+        .methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+      if(method.getSimpleName().contentEquals(name) && method.getParameters().size() == parameters
+          && method.getModifiers().contains(Modifier.PUBLIC)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private boolean isCollection(TypeMirror type) {
+    TypeElement collection = processingEnv.getElementUtils().getTypeElement("java.util.Collection");
+    return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type),
+        processingEnv.getTypeUtils().erasure(collection.asType()));
+  }
+
+  /**
+   * Returns the afterLoad value of the entity's MappedEntity annotation. The annotation class isn't
+   * on the processor's class path, so the value is read from the annotation mirror.
+   */
+  private String afterLoad(TypeElement entity) {
+    for(AnnotationMirror mirror : entity.getAnnotationMirrors()) {
+      Element annotation = mirror.getAnnotationType().asElement();
+
+      if(annotation.getKind() == ElementKind.ANNOTATION_TYPE
+          && ((TypeElement)annotation).getQualifiedName().contentEquals(MAPPED_ENTITY)) {
+        for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : mirror
+            .getElementValues().entrySet()) {
+          if(value.getKey().getSimpleName().contentEquals("afterLoad")) {
+            return value.getValue().getValue().toString();
+          }
+        }
+      }
+    }
+
+    return "";
+  }
+
+  private void writeServiceFile() {
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          SERVICE_FILE);
+
+      try(Writer writer = file.openWriter()) {
+        for(String className : generated) {
+          writer.write(className + "\n");
+        }
+      }
+    }
+    catch(IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Unable to write " + SERVICE_FILE + ": " + e);
+    }
+  }
+
+  /**
+   * The same conversion as DaoBase.camelCaseToSnakeCase(), so generated and reflective mappers
+   * use the same column names.
+   */
+  private static String camelCaseToSnakeCase(String identifier) {
+    StringBuilder nameBuilder = new StringBuilder();
+
+    for(char ch : identifier.toCharArray()) {
+      if(Character.isUpperCase(ch)) {
+        nameBuilder.append('_').append(Character.toLowerCase(ch));
+      }
+      else {
+        nameBuilder.append(ch);
+      }
+    }
+
+    return nameBuilder.toString();
+  }
+
+  /**
+   * A field of an entity and how it is mapped.
+   */
+  private static class MappedField {
+    private final String name;
+    private final String column;
+    private final String[] type;
+    private final String getter;
+    private final String setter;
+
+    MappedField(String name, String column, String[] type, String getter, String setter) {
+      this.name = name;
+      this.column = column;
+      this.type = type;
+      this.getter = getter;
+      this.setter = setter;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package projects.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import provided.util.DaoBase;
+import provided.util.RowMapper;
+
+/*
+ * Exposes the protected DaoBase mapping and binding methods to the benchmarks
+ */
+
+public class BenchmarkDao extends DaoBase {
+
+	// Maps every row of the result set with one row mapper, the way the ProjectDao fetch methods do
+	public <T> void mapAll(ResultSet resultSet, Class<T> classType, Consumer<T> action) throws SQLException {
+		resultSet.beforeFirst();
+		RowMapper<T> mapper = rowMapper(resultSet, classType);
+
+		while (resultSet.next()) {
+			action.accept(mapper.map(resultSet));
+		}
+	}
+
+	// Maps every row of the result set with extract(), which looks the row mapper up for each row
+	public <T> void extractAll(ResultSet resultSet, Class<T> classType, Consumer<T> action) throws SQLException {
+		resultSet.beforeFirst();
+
+		while (resultSet.next()) {
+			action.accept(extract(resultSet, classType));
+		}
+	}
+
+	public void bind(PreparedStatement statement, int index, Object value, Class<?> classType) throws SQLException {
+		setParameter(statement, index, value, classType);
+	}
+}
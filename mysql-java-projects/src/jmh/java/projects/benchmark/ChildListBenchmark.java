@@ -0,0 +1,77 @@
+package projects.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import projects.entity.Project;
+import projects.entity.Step;
+
+/*
+ * Compares the ways of collecting a project's steps while they are read. linkedListCopy is how the DAO used to do it: the rows
+ * went into a LinkedList that was then added to the project's LinkedList. The other two read the rows straight into the project's
+ * ArrayList, either letting it grow or sizing it first from the step count. The gc profiler (on by default in the jmh profile)
+ * reports the bytes allocated per operation as gc.alloc.rate.norm.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChildListBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int rows;
+
+	private BenchmarkDao dao = new BenchmarkDao();
+	private ResultSet resultSet;
+
+	@Setup
+	public void setUp() throws SQLException {
+		resultSet = RowSets.steps(rows);
+	}
+
+	@Benchmark
+	public Project linkedListCopy() throws SQLException {
+		Project project = new Project();
+		project.setSteps(new LinkedList<>());
+
+		List<Step> steps = new LinkedList<>();
+		dao.mapAll(resultSet, Step.class, steps::add);
+		project.getSteps().addAll(steps);
+
+		return project;
+	}
+
+	@Benchmark
+	public Project growingArrayList() throws SQLException {
+		Project project = new Project();
+		dao.mapAll(resultSet, Step.class, project.getSteps()::add);
+
+		return project;
+	}
+
+	@Benchmark
+	public Project presizedArrayList() throws SQLException {
+		Project project = new Project();
+		project.setSteps(new ArrayList<>(rows));
+		dao.mapAll(resultSet, Step.class, project.getSteps()::add);
+
+		return project;
+	}
+}
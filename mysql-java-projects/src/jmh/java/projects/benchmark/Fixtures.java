@@ -0,0 +1,66 @@
+package projects.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import projects.dao.DbConnection;
+import projects.entity.Material;
+import projects.entity.Project;
+import projects.entity.Step;
+
+/*
+ * Creates and removes the rows used by the benchmarks that run against the database. Every benchmark project name starts with
+ * NAME_PREFIX so the rows can be removed without touching the application's data.
+ */
+
+public class Fixtures {
+	public static final String NAME_PREFIX = "jmh-";
+
+	// Builds a project with the given number of materials and steps
+	public static Project project(String name, int fanOut) {
+		Project project = new Project();
+
+		project.setProjectName(NAME_PREFIX + name);
+		project.setEstimatedHours(new BigDecimal("12.50"));
+		project.setActualHours(new BigDecimal("10.25"));
+		project.setDifficulty(3);
+		project.setNotes("Benchmark project notes.");
+
+		for (int child = 1; child <= fanOut; child++) {
+			Material material = new Material();
+			material.setMaterialName("Material " + child);
+			material.setNumRequired(child % 10 + 1);
+			material.setCost(new BigDecimal("3.99"));
+			project.getMaterials().add(material);
+
+			Step step = new Step();
+			step.setStepText("Do step number " + child + " of the project.");
+			step.setStepOrder(child);
+			project.getSteps().add(step);
+		}
+
+		return project;
+	}
+
+	public static List<Project> projects(String name, int count, int fanOut) {
+		List<Project> projects = new ArrayList<>(count);
+
+		for (int index = 0; index < count; index++) {
+			projects.add(project(name + "-" + index, fanOut));
+		}
+
+		return projects;
+	}
+
+	// Deletes every benchmark project. Materials, steps and category links are removed by the foreign key cascades.
+	public static void deleteAll() throws SQLException {
+		try (Connection conn = DbConnection.getConnection();
+				PreparedStatement statement = conn.prepareStatement("DELETE FROM project WHERE project_name LIKE ?")) {
+			statement.setString(1, NAME_PREFIX + "%");
+			statement.executeUpdate();
+		}
+	}
+}
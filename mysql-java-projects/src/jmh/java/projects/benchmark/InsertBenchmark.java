@@ -0,0 +1,68 @@
+package projects.benchmark;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import projects.dao.DbConnection;
+import projects.dao.ProjectDao;
+import projects.entity.Project;
+
+/*
+ * Measures the latency of inserting one project when the project table already holds tableRows rows. Because the generated key is
+ * read from the insert response, the latency should stay flat as the table grows. The batch benchmark inserts batchRows complete
+ * projects (with materials and steps) using JDBC batches.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+	@Param({ "0", "10000", "100000" })
+	private int tableRows;
+
+	@Param({ "1000" })
+	private int batchRows;
+
+	private ProjectDao projectDao = new ProjectDao();
+	private int sequence;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		Fixtures.deleteAll();
+		projectDao.insertProjects(Fixtures.projects("existing", tableRows, 0), 1000);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		Fixtures.deleteAll();
+		DbConnection.shutdown();
+	}
+
+	@Benchmark
+	public Project insertProject() {
+		return projectDao.insertProject(Fixtures.project("insert-" + sequence++, 0));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int insertProjectsBatch() {
+		return projectDao.insertProjects(Fixtures.projects("batch-" + sequence++, batchRows, 5), 500).size();
+	}
+}
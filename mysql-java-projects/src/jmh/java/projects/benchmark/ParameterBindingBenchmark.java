@@ -0,0 +1,75 @@
+package projects.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import provided.util.ParameterBinder;
+
+/*
+ * Measures DaoBase.setParameter(), which looks the binder up by class on every call, against binders that were looked up once,
+ * for the parameters of a project insert. The statement is a stand-in that ignores the values, so
+ * the score is the cost of choosing and calling the setter. The stand-in's own cost is the same for every variant.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBindingBenchmark {
+	private static final BigDecimal HOURS = new BigDecimal("12.50");
+
+	private static final ParameterBinder<String> STRING = ParameterBinder.forClass(String.class);
+	private static final ParameterBinder<BigDecimal> DECIMAL = ParameterBinder.forClass(BigDecimal.class);
+	private static final ParameterBinder<Integer> INTEGER = ParameterBinder.forClass(Integer.class);
+
+	private BenchmarkDao dao = new BenchmarkDao();
+
+	private PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+			PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+			(proxy, method, args) -> null);
+
+	// The five parameters of a project insert
+	@Benchmark
+	public PreparedStatement bindProject() throws SQLException {
+		dao.bind(statement, 1, "Bird House", String.class);
+		dao.bind(statement, 2, HOURS, BigDecimal.class);
+		dao.bind(statement, 3, HOURS, BigDecimal.class);
+		dao.bind(statement, 4, 3, Integer.class);
+		dao.bind(statement, 5, "Make sure to buy cedar wood.", String.class);
+
+		return statement;
+	}
+
+	// The same parameters bound with binders resolved ahead of time, the way ProjectDao binds them
+	@Benchmark
+	public PreparedStatement bindProjectWithBinders() throws SQLException {
+		STRING.bind(statement, 1, "Bird House");
+		DECIMAL.bind(statement, 2, HOURS);
+		DECIMAL.bind(statement, 3, HOURS);
+		INTEGER.bind(statement, 4, 3);
+		STRING.bind(statement, 5, "Make sure to buy cedar wood.");
+
+		return statement;
+	}
+
+	// A null parameter, which is bound with setNull
+	@Benchmark
+	public PreparedStatement bindNull() throws SQLException {
+		dao.bind(statement, 1, null, BigDecimal.class);
+
+		return statement;
+	}
+}
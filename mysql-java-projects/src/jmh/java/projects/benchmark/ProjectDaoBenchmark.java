@@ -0,0 +1,93 @@
+package projects.benchmark;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import projects.dao.AggregateLoadMode;
+import projects.dao.DbConnection;
+import projects.dao.ProjectDao;
+import projects.entity.Project;
+import projects.entity.ProjectSummary;
+
+/*
+ * End-to-end ProjectDao benchmarks against the local MySQL database. The fixture projects have fanOut materials and fanOut steps,
+ * and there are projectCount of them for the listing and batch-load benchmarks.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectDaoBenchmark {
+
+	@Param({ "0", "10", "1000" })
+	private int fanOut;
+
+	@Param({ "100" })
+	private int projectCount;
+
+	@Param({ "SEQUENTIAL", "SINGLE_ROUND_TRIP", "PARALLEL" })
+	private AggregateLoadMode loadMode;
+
+	private ProjectDao projectDao = new ProjectDao();
+	private List<Project> projects;
+	private List<Integer> projectIds;
+	private Project project;
+	private int updateCount;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		Fixtures.deleteAll();
+		projectDao.setLoadMode(loadMode);
+
+		projects = projectDao.insertProjects(Fixtures.projects("dao", projectCount, fanOut), 500);
+		projectIds = projects.stream().map(Project::getProjectId).toList();
+		project = projects.get(0);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		Fixtures.deleteAll();
+		DbConnection.shutdown();
+	}
+
+	@Benchmark
+	public Project fetchProjectById() {
+		return projectDao.fetchProjectById(project.getProjectId()).orElseThrow();
+	}
+
+	@Benchmark
+	public List<Project> fetchProjectsByIds() {
+		return projectDao.fetchProjectsByIds(projectIds);
+	}
+
+	@Benchmark
+	public List<ProjectSummary> fetchProjectSummaries() {
+		return projectDao.fetchProjectSummaries();
+	}
+
+	/*
+	 * Changes one field before each update. An unchanged project has no dirty fields and is not sent to the database, so reusing it
+	 * as is would measure a no-op.
+	 */
+	@Benchmark
+	public boolean modifyProjectDetails() {
+		project.setDifficulty(++updateCount % 5 + 1);
+		return projectDao.modifyProjectDetails(project);
+	}
+}
@@ -0,0 +1,81 @@
+package projects.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import projects.entity.Category;
+import projects.entity.Material;
+import projects.entity.Project;
+import projects.entity.Step;
+
+/*
+ * Measures how fast DaoBase turns result set rows into Project, Material, Step and Category objects. The rows come from an
+ * in-memory result set, so the score is the cost of the mapping itself.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+	@Param({ "Project", "Material", "Step", "Category" })
+	private String entity;
+
+	@Param({ "100", "10000" })
+	private int rows;
+
+	private BenchmarkDao dao = new BenchmarkDao();
+	private ResultSet resultSet;
+	private Class<?> classType;
+
+	@Setup
+	public void setUp() throws SQLException {
+		switch (entity) {
+			case "Project":
+				resultSet = RowSets.projects(rows);
+				classType = Project.class;
+				break;
+
+			case "Material":
+				resultSet = RowSets.materials(rows);
+				classType = Material.class;
+				break;
+
+			case "Step":
+				resultSet = RowSets.steps(rows);
+				classType = Step.class;
+				break;
+
+			default:
+				resultSet = RowSets.categories(rows);
+				classType = Category.class;
+		}
+	}
+
+	// One row mapper for the whole result set
+	@Benchmark
+	public void mapAll(Blackhole blackhole) throws SQLException {
+		dao.mapAll(resultSet, classType, blackhole::consume);
+	}
+
+	// extract() for each row
+	@Benchmark
+	public void extractEachRow(Blackhole blackhole) throws SQLException {
+		dao.extractAll(resultSet, classType, blackhole::consume);
+	}
+}
@@ -0,0 +1,106 @@
+package projects.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+/*
+ * Builds in-memory result sets with the same columns as the project tables. They stand in for a database so that the mapping
+ * benchmarks measure the mapping code and not the network or the driver.
+ */
+
+public class RowSets {
+
+	public static CachedRowSet projects(int rows) throws SQLException {
+		CachedRowSet rowSet = create(new String[] { "project_id", "project_name", "estimated_hours", "actual_hours",
+				"difficulty", "notes" }, new int[] { Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.DECIMAL,
+						Types.INTEGER, Types.LONGVARCHAR });
+
+		for (int row = 1; row <= rows; row++) {
+			rowSet.moveToInsertRow();
+			rowSet.updateInt(1, row);
+			rowSet.updateString(2, "Project " + row);
+			rowSet.updateBigDecimal(3, new BigDecimal("12.50"));
+			rowSet.updateBigDecimal(4, new BigDecimal("10.25"));
+			rowSet.updateInt(5, row % 5 + 1);
+			rowSet.updateString(6, "Notes for project " + row);
+			rowSet.insertRow();
+		}
+
+		return finish(rowSet);
+	}
+
+	public static CachedRowSet materials(int rows) throws SQLException {
+		CachedRowSet rowSet = create(new String[] { "material_id", "project_id", "material_name", "num_required", "cost" },
+				new int[] { Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.DECIMAL });
+
+		for (int row = 1; row <= rows; row++) {
+			rowSet.moveToInsertRow();
+			rowSet.updateInt(1, row);
+			rowSet.updateInt(2, 1);
+			rowSet.updateString(3, "Material " + row);
+			rowSet.updateInt(4, row % 10 + 1);
+			rowSet.updateBigDecimal(5, new BigDecimal("3.99"));
+			rowSet.insertRow();
+		}
+
+		return finish(rowSet);
+	}
+
+	public static CachedRowSet steps(int rows) throws SQLException {
+		CachedRowSet rowSet = create(new String[] { "step_id", "project_id", "step_text", "step_order" },
+				new int[] { Types.INTEGER, Types.INTEGER, Types.LONGVARCHAR, Types.INTEGER });
+
+		for (int row = 1; row <= rows; row++) {
+			rowSet.moveToInsertRow();
+			rowSet.updateInt(1, row);
+			rowSet.updateInt(2, 1);
+			rowSet.updateString(3, "Do step number " + row + " of the project.");
+			rowSet.updateInt(4, row);
+			rowSet.insertRow();
+		}
+
+		return finish(rowSet);
+	}
+
+	public static CachedRowSet categories(int rows) throws SQLException {
+		CachedRowSet rowSet = create(new String[] { "category_id", "category_name" },
+				new int[] { Types.INTEGER, Types.VARCHAR });
+
+		for (int row = 1; row <= rows; row++) {
+			rowSet.moveToInsertRow();
+			rowSet.updateInt(1, row);
+			rowSet.updateString(2, "Category " + row);
+			rowSet.insertRow();
+		}
+
+		return finish(rowSet);
+	}
+
+	private static CachedRowSet create(String[] columns, int[] types) throws SQLException {
+		RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(columns.length);
+
+		for (int col = 1; col <= columns.length; col++) {
+			metaData.setColumnName(col, columns[col - 1]);
+			metaData.setColumnLabel(col, columns[col - 1]);
+			metaData.setColumnType(col, types[col - 1]);
+			metaData.setNullable(col, RowSetMetaDataImpl.columnNullable);
+		}
+
+		CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+		rowSet.setMetaData(metaData);
+
+		return rowSet;
+	}
+
+	private static CachedRowSet finish(CachedRowSet rowSet) throws SQLException {
+		rowSet.moveToCurrentRow();
+		rowSet.beforeFirst();
+
+		return rowSet;
+	}
+}
@@ -4,8 +4,10 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
+import projects.dao.MigrationRunner;
 import projects.entity.Project;
 import projects.exception.DbException;
+import projects.exception.OptimisticLockException;
 import projects.service.ProjectService;
 
 /*
@@ -42,6 +44,24 @@ public class ProjectsApp {
 	private void processUserSelections() {
 		boolean done = false;
 		
+		// Applies the schema migrations the database doesn't have yet, such as the project version column that updates rely on
+		try {
+			List<Integer> applied = new MigrationRunner().migrate();
+
+			if (!applied.isEmpty()) {
+				System.out.println("\nApplied database migrations " + applied);
+			}
+		} catch (Exception e) {
+			System.out.println("\nError: " + e + " The database schema could not be brought up to date.");
+		}
+		
+		// Loads the categories up front. If the database can't be reached yet, they are loaded with the first project instead.
+		try {
+			projectService.loadCategories();
+		} catch (Exception e) {
+			System.out.println("\nError: " + e + " Categories will be loaded later.");
+		}
+		
 		while(!done) {
 			try {
 				int selection = getUserSelection();
@@ -118,19 +138,36 @@ public class ProjectsApp {
 		Integer difficulty = getIntInput("Enter the project difficulty [" + curProject.getDifficulty() + "]");
 		String notes = getStringInput("Enter the project notes [" + curProject.getNotes() + "]");
 		
-		Project project = new Project();
+		// The copy starts with the current project's values. Only the fields the user entered a new value for are set, so only
+		// those fields are marked as changed and written to the project table.
+		Project project = curProject.copyDetails();
+		
+		if (Objects.nonNull(projectName)) {
+			project.setProjectName(projectName);
+		}
+		
+		if (Objects.nonNull(estimatedHours)) {
+			project.setEstimatedHours(estimatedHours);
+		}
+		
+		if (Objects.nonNull(actualHours)) {
+			project.setActualHours(actualHours);
+		}
 		
-		// If the user does not input data for one of the Project class fields, it sets the value of the field to the current project's field value.
-		// If the user did input data for a specific field, it sets the value of the field to the value input by the user.
-		project.setProjectName(Objects.isNull(projectName) ? curProject.getProjectName() : projectName);
-		project.setEstimatedHours(Objects.isNull(estimatedHours) ? curProject.getEstimatedHours() : estimatedHours );
-		project.setActualHours(Objects.isNull(actualHours) ? curProject.getActualHours() : actualHours);
-		project.setDifficulty(Objects.isNull(difficulty) ? curProject.getDifficulty() : difficulty);
-		project.setNotes(Objects.isNull(notes) ? curProject.getNotes() : notes);
+		if (Objects.nonNull(difficulty)) {
+			project.setDifficulty(difficulty);
+		}
 		
-		project.setProjectId(curProject.getProjectId());
+		if (Objects.nonNull(notes)) {
+			project.setNotes(notes);
+		}
 
-		projectService.modifyProjectDetails(project);
+		// If someone else changed the project after it was selected, nothing is saved and the latest version is shown instead
+		try {
+			projectService.modifyProjectDetails(project);
+		} catch (OptimisticLockException e) {
+			System.out.println("\nThe project was changed by someone else and was not updated. Review the latest version and try again.");
+		}
 	
 		curProject = projectService.fetchProjectById(curProject.getProjectId());
 	}
@@ -153,14 +190,12 @@ public class ProjectsApp {
 	}
 
 	/* 
-	 * Retrieves all projects and prints their names and IDs. It calls the fetchAllProjects() method in the ProjectService class to retrieve all of the
-	 * projects in the project table.
+	 * Retrieves all projects and prints their names and IDs. It calls the forEachProjectSummary() method in the ProjectService class, which reads
+	 * only the ID and name of each project and passes them to the print statement as soon as they are read.
 	 */
 	private void listProjects() {
-		List<Project> projects = projectService.fetchAllProjects();
-		
 		System.out.println("\nProjects:");
-		projects.forEach(project -> System.out.println("   " + project.getProjectId() + ": " + project.getProjectName()));
+		projectService.forEachProjectSummary(project -> System.out.println("   " + project.getProjectId() + ": " + project.getProjectName()));
 	}
 
 	// Creates a project using the user input. It calls the addProject() method from the ProjectService class to insert the project into the project table.
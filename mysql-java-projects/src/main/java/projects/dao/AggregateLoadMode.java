@@ -0,0 +1,19 @@
+package projects.dao;
+
+/*
+ * Controls how ProjectDao loads a project together with its materials, steps and categories.
+ */
+
+public enum AggregateLoadMode {
+	// Runs the project query and the three child queries one after another, which costs four round trips
+	SEQUENTIAL,
+
+	// Sends the project query and the three child queries as one multi-statement request and reads the four result sets from the
+	// single response
+	SINGLE_ROUND_TRIP,
+
+	// Runs the child queries at the same time on three pooled connections, each reading from its own consistent snapshot. If the
+	// project's version differs between the snapshots, the children are read again from the first one. Falls back to SEQUENTIAL
+	// when the pool has no free connections to spare.
+	PARALLEL
+}
@@ -0,0 +1,164 @@
+package projects.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import projects.entity.ReadOnlyCategory;
+import projects.exception.DbException;
+
+/*
+ * An in-memory copy of the category table. There are few categories and they rarely change, so they are read once and every
+ * project shares the same Category instance for a category ID. Loading a project then only needs the category IDs from
+ * project_category. The shared instances are immutable ReadOnlyCategory objects, which is the type Project holds its categories as.
+ *
+ * The dictionary is loaded on first use, or at startup with load(). A lookup of an ID that isn't in the dictionary reloads it
+ * once, which picks up categories that were added since it was loaded. A category that was renamed or deleted is not noticed that
+ * way: nothing in this application changes existing categories, so when that is done in the database directly (for example with
+ * SQL), call refresh() (or ProjectService.refreshCategories(), which also clears the project cache) afterwards. Until then, loaded
+ * projects show the old category name.
+ */
+
+public class CategoryDictionary {
+	private static final String CATEGORIES_SQL = "SELECT category_id, category_name FROM category ORDER BY category_id";
+
+	// Replaced as a whole when the dictionary is reloaded, so a lookup never sees a half-loaded map
+	private volatile Map<Integer, ReadOnlyCategory> categories;
+
+	// Held while the category table is read, so a ReentrantLock: a virtual thread doesn't pin its carrier thread during the query
+	private final ReentrantLock reloadLock = new ReentrantLock();
+
+	// Loads the categories if they haven't been loaded and returns them in ID order
+	public List<ReadOnlyCategory> load() {
+		Map<Integer, ReadOnlyCategory> current = categories;
+
+		if (Objects.isNull(current)) {
+			try (Connection conn = DbConnection.getConnection()) {
+				current = reload(conn, null);
+			} catch (SQLException e) {
+				throw new DbException(e);
+			}
+		}
+
+		List<ReadOnlyCategory> all = new ArrayList<>(current.values());
+		all.sort((left, right) -> left.getCategoryId().compareTo(right.getCategoryId()));
+
+		return all;
+	}
+
+	// Reads the categories again, keeping the existing instance of every category whose name hasn't changed. See the class comment
+	// for when to call it.
+	public void refresh() {
+		try (Connection conn = DbConnection.getConnection()) {
+			reload(conn, categories);
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	/*
+	 * Returns the shared Category for each ID, in the same order. If an ID is missing, the categories are reloaded on the given
+	 * connection (at most once per call). A link to a category that still doesn't exist is an error.
+	 */
+	List<ReadOnlyCategory> resolve(Connection conn, List<Integer> categoryIds) throws SQLException {
+		Map<Integer, ReadOnlyCategory> current = categories;
+		boolean reloaded = false;
+		List<ReadOnlyCategory> resolved = new ArrayList<>(categoryIds.size());
+
+		if (Objects.isNull(current)) {
+			current = reload(conn, null);
+			reloaded = true;
+		}
+
+		for (Integer categoryId : categoryIds) {
+			ReadOnlyCategory category = current.get(categoryId);
+
+			if (Objects.isNull(category) && !reloaded) {
+				current = reload(conn, current);
+				reloaded = true;
+				category = current.get(categoryId);
+			}
+
+			if (Objects.isNull(category)) {
+				throw new SQLException("Category with category ID=" + categoryId + " doesn't exist.");
+			}
+
+			resolved.add(category);
+		}
+
+		return resolved;
+	}
+
+	/*
+	 * Reloads the categories unless another thread has already replaced the map that the caller saw, in which case the newer map
+	 * is returned. This keeps a burst of lookups that miss the same new category from each reading the table.
+	 */
+	private Map<Integer, ReadOnlyCategory> reload(Connection conn, Map<Integer, ReadOnlyCategory> seen) throws SQLException {
+		reloadLock.lock();
+
+		try {
+			Map<Integer, ReadOnlyCategory> current = categories;
+
+			if (Objects.nonNull(current) && current != seen) {
+				return current;
+			}
+
+			Map<Integer, ReadOnlyCategory> loaded = new HashMap<>();
+
+			try (PreparedStatement statement = conn.prepareStatement(CATEGORIES_SQL);
+					ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					Integer categoryId = resultSet.getInt(1);
+					String categoryName = resultSet.getString(2);
+					ReadOnlyCategory existing = Objects.isNull(current) ? null : current.get(categoryId);
+
+					if (Objects.nonNull(existing) && existing.getCategoryName().equals(categoryName)) {
+						loaded.put(categoryId, existing);
+					} else {
+						loaded.put(categoryId, new SharedCategory(categoryId, categoryName));
+					}
+				}
+			}
+
+			categories = Collections.unmodifiableMap(loaded);
+			return categories;
+		} finally {
+			reloadLock.unlock();
+		}
+	}
+
+	// A category that is shared by every project that links to it, so it has no setters
+	private static final class SharedCategory implements ReadOnlyCategory {
+		private final Integer categoryId;
+		private final String categoryName;
+
+		SharedCategory(Integer categoryId, String categoryName) {
+			this.categoryId = categoryId;
+			this.categoryName = categoryName;
+		}
+
+		@Override
+		public Integer getCategoryId() {
+			return categoryId;
+		}
+
+		@Override
+		public String getCategoryName() {
+			return categoryName;
+		}
+
+		@Override
+		public String toString() {
+			return "ID=" + categoryId + ", categoryName=" + categoryName;
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package projects.dao;
+
+/*
+ * The number of project_category rows that a category add, remove or replace wrote. Links that already matched the requested
+ * categories are not counted because no statement was sent for them.
+ */
+
+public class CategoryLinkChanges {
+	private final int projects;
+	private final int added;
+	private final int removed;
+
+	CategoryLinkChanges(int projects, int added, int removed) {
+		this.projects = projects;
+		this.added = added;
+		this.removed = removed;
+	}
+
+	// The projects whose categories were compared
+	public int getProjects() {
+		return projects;
+	}
+
+	// Links that were missing and were inserted
+	public int getAdded() {
+		return added;
+	}
+
+	// Links that existed and were deleted
+	public int getRemoved() {
+		return removed;
+	}
+
+	@Override
+	public String toString() {
+		return "projects=" + projects + ", added=" + added + ", removed=" + removed;
+	}
+
+}
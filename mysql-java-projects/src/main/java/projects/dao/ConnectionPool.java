@@ -0,0 +1,643 @@
+package projects.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * A bounded pool of physical database connections. Callers borrow a connection with borrow() and give it back by closing it, so
+ * the existing try-with-resources blocks in the DAO return connections to the pool instead of closing the socket. Connections are
+ * validated when they are borrowed, idle connections above the minimum size are closed after the idle timeout, and connections
+ * that are held longer than the leak threshold are reported with the stack trace of the code that borrowed them.
+ *
+ * Each pooled connection also keeps the statements prepared on it open for reuse. Closing a statement returns it to its
+ * connection's cache, so the next prepareStatement() call with the same SQL on that connection reuses the statement (and its
+ * server-side prepare) instead of preparing it again.
+ *
+ * The connections and statements handed out are hand-written wrappers (see DelegatingConnection and DelegatingPreparedStatement)
+ * that pass every call they don't handle to the driver's objects, including unwrap() and isWrapperFor().
+ */
+
+public class ConnectionPool {
+	private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+	private final String url;
+	private final PoolConfig config;
+
+	// Limits the number of borrowed connections to the maximum size. Idle connections only come from returned connections or from
+	// topping the pool up to the minimum size, so the number of open connections stays within the maximum as well.
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+	private final Set<ConnectionHandle> borrowed = ConcurrentHashMap.newKeySet();
+	private final ScheduledExecutorService maintenance;
+
+	private final AtomicInteger waiters = new AtomicInteger();
+	private final LongAdder borrowCount = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder timeoutCount = new LongAdder();
+	private final LongAdder createdCount = new LongAdder();
+	private final LongAdder destroyedCount = new LongAdder();
+	private final LongAdder leakCount = new LongAdder();
+	private final LongAdder statementCacheHits = new LongAdder();
+	private final LongAdder statementCacheMisses = new LongAdder();
+	private final LongAdder statementCacheEvictions = new LongAdder();
+
+	private volatile boolean shutdown;
+
+	public ConnectionPool(String url, PoolConfig config) {
+		config.validate();
+
+		this.url = url;
+		this.config = config;
+		this.permits = new Semaphore(config.getMaxSize(), true);
+
+		this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "connection-pool-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long interval = config.getMaintenanceIntervalMillis();
+		maintenance.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * Borrows a connection from the pool. It waits up to the borrow timeout for a connection to become available and throws a
+	 * SQLTimeoutException if none does. The connection must be closed to return it to the pool.
+	 */
+	public Connection borrow() throws SQLException {
+		if (shutdown) {
+			throw new SQLException("The connection pool has been shut down.");
+		}
+
+		long start = System.nanoTime();
+		waiters.incrementAndGet();
+
+		try {
+			if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+				timeoutCount.increment();
+				throw new SQLTimeoutException(
+						"Timed out after " + config.getBorrowTimeoutMillis() + "ms waiting for a connection. Pool: " + getStats());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection.", e);
+		} finally {
+			waiters.decrementAndGet();
+		}
+
+		long waited = System.nanoTime() - start;
+		borrowCount.increment();
+		totalWaitNanos.add(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+		return checkOut();
+	}
+
+	/*
+	 * Borrows a connection only if one can be had without waiting for another caller to return one. It returns null if every
+	 * connection is in use. It is used for optional extra connections, where the caller can fall back to the connection it has.
+	 */
+	public Connection tryBorrow() throws SQLException {
+		if (shutdown || !permits.tryAcquire()) {
+			return null;
+		}
+
+		borrowCount.increment();
+
+		return checkOut();
+	}
+
+	// Returns a snapshot of the pool counters
+	public PoolStats getStats() {
+		return new PoolStats(borrowed.size(), idle.size(), waiters.get(), borrowCount.sum(), totalWaitNanos.sum(),
+				maxWaitNanos.get(), timeoutCount.sum(), createdCount.sum(), destroyedCount.sum(), leakCount.sum(),
+				statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+	}
+
+	public PoolConfig getConfig() {
+		return config;
+	}
+
+	// Closes the idle connections and stops the maintenance thread. Borrowed connections are closed when they are returned.
+	public void shutdown() {
+		shutdown = true;
+		maintenance.shutdownNow();
+
+		PooledConnection pooled;
+
+		while ((pooled = idle.pollFirst()) != null) {
+			destroy(pooled);
+		}
+	}
+
+	// Opens the minimum number of connections so the first callers do not pay for the handshake
+	void prefill() throws SQLException {
+		while (idle.size() + borrowed.size() < config.getMinSize() && permits.tryAcquire()) {
+			try {
+				idle.offerLast(create());
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+	// Hands a connection to a caller that holds a permit. The permit is given back if no connection can be opened.
+	private Connection checkOut() throws SQLException {
+		try {
+			PooledConnection pooled = takeValidConnection();
+			ConnectionHandle handle = new ConnectionHandle(pooled);
+			borrowed.add(handle);
+
+			return handle;
+
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/*
+	 * Takes the most recently used idle connection, which is the one most likely to still be open on the server. A connection
+	 * that fails validation is closed and the next one is tried. A new connection is opened if none are idle.
+	 */
+	private PooledConnection takeValidConnection() throws SQLException {
+		PooledConnection pooled;
+
+		while ((pooled = idle.pollFirst()) != null) {
+			if (isValid(pooled)) {
+				return pooled;
+			}
+
+			destroy(pooled);
+		}
+
+		return create();
+	}
+
+	private boolean isValid(PooledConnection pooled) {
+		try {
+			return pooled.connection.isValid(config.getValidationTimeoutSeconds());
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private PooledConnection create() throws SQLException {
+		Connection connection = DriverManager.getConnection(url);
+		createdCount.increment();
+
+		try {
+			return new PooledConnection(connection, connection.getTransactionIsolation());
+		} catch (SQLException e) {
+			connection.close();
+			throw e;
+		}
+	}
+
+	private void destroy(PooledConnection pooled) {
+		destroyedCount.increment();
+
+		try {
+			pooled.connection.close();
+		} catch (SQLException e) {
+			LOG.log(Level.FINE, "Error closing pooled connection", e);
+		}
+	}
+
+	/*
+	 * Puts a connection back in the pool. Any transaction left open by the caller is rolled back, and auto-commit and the
+	 * transaction isolation level the connection was opened with are restored, so the next borrower starts from a clean state. A
+	 * connection that cannot be reset is closed instead.
+	 */
+	private void release(ConnectionHandle handle) {
+		borrowed.remove(handle);
+		PooledConnection pooled = handle.pooled;
+
+		try {
+			if (shutdown) {
+				destroy(pooled);
+				return;
+			}
+
+			try {
+				if (!pooled.connection.getAutoCommit()) {
+					pooled.connection.rollback();
+					pooled.connection.setAutoCommit(true);
+				}
+
+				if (handle.isolation != pooled.isolation) {
+					pooled.connection.setTransactionIsolation(pooled.isolation);
+				}
+
+				pooled.lastUsedNanos = System.nanoTime();
+				idle.offerFirst(pooled);
+
+			} catch (SQLException e) {
+				destroy(pooled);
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	// Runs on the maintenance thread. It closes expired idle connections, tops the pool up to the minimum size and reports leaks.
+	private void maintain() {
+		try {
+			evictIdle();
+			prefill();
+			detectLeaks();
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, "Connection pool maintenance failed", e);
+		}
+	}
+
+	private void evictIdle() {
+		long now = System.nanoTime();
+		long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+
+		// The oldest connections are at the end of the deque
+		Iterator<PooledConnection> it = idle.descendingIterator();
+
+		while (it.hasNext() && idle.size() + borrowed.size() > config.getMinSize()) {
+			PooledConnection pooled = it.next();
+
+			if (now - pooled.lastUsedNanos > idleTimeoutNanos && idle.remove(pooled)) {
+				destroy(pooled);
+			}
+		}
+	}
+
+	private void detectLeaks() {
+		if (config.getLeakThresholdMillis() == 0) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLeakThresholdMillis());
+
+		for (ConnectionHandle handle : borrowed) {
+			if (!handle.leakReported && now - handle.borrowedNanos > thresholdNanos) {
+				handle.leakReported = true;
+				leakCount.increment();
+				LOG.log(Level.WARNING, "Connection held for more than " + config.getLeakThresholdMillis()
+						+ "ms without being closed. It was borrowed here:", handle.borrowSite);
+			}
+		}
+	}
+
+	// A physical connection owned by the pool
+	private class PooledConnection {
+		private final Connection connection;
+
+		// The isolation level the connection was opened with, which is restored if a borrower changes it
+		private final int isolation;
+		private final StatementCache statements = new StatementCache();
+		private volatile long lastUsedNanos = System.nanoTime();
+
+		PooledConnection(Connection connection, int isolation) {
+			this.connection = connection;
+			this.isolation = isolation;
+		}
+	}
+
+	/*
+	 * The statements prepared on one physical connection, keyed by their SQL and the options they were prepared with, in least
+	 * recently used order. A statement is taken out of the cache while a caller uses it and put back when the caller closes it,
+	 * so two callers never share a statement. The cache is not locked: a statement is only put back by the thread that prepared
+	 * it, while the lease it was prepared under is still open (see CachedStatement.close()), so only the current borrower's
+	 * thread touches the cache.
+	 */
+	private class StatementCache extends LinkedHashMap<StatementKey, PreparedStatement> {
+		private static final long serialVersionUID = 1L;
+
+		StatementCache() {
+			super(16, 0.75f, true);
+		}
+
+		// Returns a statement for the key from the cache, or prepares a new one. Closing the returned statement gives it back.
+		PreparedStatement prepare(ConnectionHandle lease, StatementKey key) throws SQLException {
+			PreparedStatement statement = remove(key);
+
+			if (Objects.nonNull(statement)) {
+				statementCacheHits.increment();
+			} else {
+				statementCacheMisses.increment();
+				statement = key.prepare(lease.pooled.connection);
+			}
+
+			return new CachedStatement(this, lease, statement, key);
+		}
+
+		/*
+		 * Puts a closed statement back after clearing what the caller left on it: its parameters, batch, fetch size and any result
+		 * sets it did not read. If the same SQL is already cached or the statement can't be reset, it is closed instead.
+		 */
+		void giveBack(StatementKey key, PreparedStatement statement, boolean fetchSizeChanged) {
+			try {
+				if (containsKey(key) || config.getStatementCacheSize() == 0) {
+					statement.close();
+					return;
+				}
+
+				statement.clearParameters();
+				statement.clearBatch();
+
+				if (fetchSizeChanged) {
+					statement.setFetchSize(0);
+				}
+
+				while (statement.getMoreResults() || statement.getUpdateCount() != -1) {
+					// Each call closes the current result and moves to the next one
+				}
+
+				put(key, statement);
+
+			} catch (SQLException e) {
+				close(statement);
+			}
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+			if (size() > config.getStatementCacheSize()) {
+				statementCacheEvictions.increment();
+				close(eldest.getValue());
+				return true;
+			}
+
+			return false;
+		}
+
+		private void close(PreparedStatement statement) {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				LOG.log(Level.FINE, "Error closing cached statement", e);
+			}
+		}
+	}
+
+	/*
+	 * The SQL of a cached statement and the options it was prepared with. Only the three prepareStatement() forms used by the
+	 * DAO are cached: plain (form 1), with a generated keys flag (form 2), and with a result set type and concurrency (form 3).
+	 */
+	private static final class StatementKey {
+		private final String sql;
+		private final int form;
+		private final int option1;
+		private final int option2;
+
+		StatementKey(String sql, int form, int option1, int option2) {
+			this.sql = sql;
+			this.form = form;
+			this.option1 = option1;
+			this.option2 = option2;
+		}
+
+		PreparedStatement prepare(Connection connection) throws SQLException {
+			switch (form) {
+				case 2:
+					return connection.prepareStatement(sql, option1);
+				case 3:
+					return connection.prepareStatement(sql, option1, option2);
+				default:
+					return connection.prepareStatement(sql);
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof StatementKey)) {
+				return false;
+			}
+
+			StatementKey other = (StatementKey) obj;
+			return form == other.form && option1 == other.option1 && option2 == other.option2 && sql.equals(other.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sql, form, option1, option2);
+		}
+	}
+
+	/*
+	 * A statement handed out from a StatementCache. Closing it returns the statement to the cache. A statement whose settings other
+	 * than the fetch size were changed is closed instead, so the next caller gets a statement with defaults. So is a statement closed
+	 * after the lease it was prepared under ended, or from a thread other than the one that prepared it: by then the connection and
+	 * its cache may belong to another borrower, and the cache is not locked.
+	 */
+	private static class CachedStatement extends DelegatingPreparedStatement {
+		private final StatementCache cache;
+		private final ConnectionHandle lease;
+		private final PreparedStatement statement;
+		private final StatementKey key;
+		private final Thread owner = Thread.currentThread();
+		private volatile boolean closed;
+		private boolean fetchSizeChanged;
+		private boolean settingsChanged;
+
+		CachedStatement(StatementCache cache, ConnectionHandle lease, PreparedStatement statement, StatementKey key) {
+			this.cache = cache;
+			this.lease = lease;
+			this.statement = statement;
+			this.key = key;
+		}
+
+		@Override
+		protected PreparedStatement delegate() throws SQLException {
+			if (closed) {
+				throw new SQLException("Statement has been closed.");
+			}
+
+			return statement;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			if (settingsChanged || lease.closed || Thread.currentThread() != owner) {
+				statement.close();
+			} else {
+				cache.giveBack(key, statement, fetchSizeChanged);
+			}
+		}
+
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || statement.isClosed();
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			delegate();
+			return lease;
+		}
+
+		@Override
+		public void setFetchSize(int rows) throws SQLException {
+			delegate().setFetchSize(rows);
+			fetchSizeChanged = true;
+		}
+
+		// The settings below are not reset by giveBack(), so a statement with any of them changed is not cached again
+
+		@Override
+		public void setMaxRows(int max) throws SQLException {
+			settingsChanged = true;
+			delegate().setMaxRows(max);
+		}
+
+		@Override
+		public void setLargeMaxRows(long max) throws SQLException {
+			settingsChanged = true;
+			delegate().setLargeMaxRows(max);
+		}
+
+		@Override
+		public void setQueryTimeout(int seconds) throws SQLException {
+			settingsChanged = true;
+			delegate().setQueryTimeout(seconds);
+		}
+
+		@Override
+		public void setFetchDirection(int direction) throws SQLException {
+			settingsChanged = true;
+			delegate().setFetchDirection(direction);
+		}
+
+		@Override
+		public void setEscapeProcessing(boolean enable) throws SQLException {
+			settingsChanged = true;
+			delegate().setEscapeProcessing(enable);
+		}
+
+		@Override
+		public void setPoolable(boolean poolable) throws SQLException {
+			settingsChanged = true;
+			delegate().setPoolable(poolable);
+		}
+
+		@Override
+		public void setCursorName(String name) throws SQLException {
+			settingsChanged = true;
+			delegate().setCursorName(name);
+		}
+
+		@Override
+		public void setMaxFieldSize(int max) throws SQLException {
+			settingsChanged = true;
+			delegate().setMaxFieldSize(max);
+		}
+
+		@Override
+		public void closeOnCompletion() throws SQLException {
+			settingsChanged = true;
+			delegate().closeOnCompletion();
+		}
+
+		@Override
+		public String toString() {
+			return "Cached" + statement;
+		}
+	}
+
+	/*
+	 * The connection given to a borrower, which is one lease of a physical connection. Closing it returns the physical connection
+	 * to the pool, and it refuses to be used after that so a caller cannot touch a connection that has been handed to someone else.
+	 */
+	private class ConnectionHandle extends DelegatingConnection {
+		private final PooledConnection pooled;
+		private final long borrowedNanos = System.nanoTime();
+		private final Throwable borrowSite;
+		private volatile boolean closed;
+		private volatile boolean leakReported;
+		private int isolation;
+
+		ConnectionHandle(PooledConnection pooled) {
+			this.pooled = pooled;
+			this.isolation = pooled.isolation;
+			this.borrowSite = config.getLeakThresholdMillis() > 0 ? new Throwable("Connection borrowed") : null;
+		}
+
+		@Override
+		protected Connection delegate() throws SQLException {
+			if (closed) {
+				throw new SQLException("Connection has been returned to the pool.");
+			}
+
+			return pooled.connection;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				release(this);
+			}
+		}
+
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || pooled.connection.isClosed();
+		}
+
+		@Override
+		public void setTransactionIsolation(int level) throws SQLException {
+			isolation = level;
+			delegate().setTransactionIsolation(level);
+		}
+
+		@Override
+		public PreparedStatement prepareStatement(String sql) throws SQLException {
+			return prepare(new StatementKey(sql, 1, 0, 0));
+		}
+
+		@Override
+		public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+			return prepare(new StatementKey(sql, 2, autoGeneratedKeys, 0));
+		}
+
+		@Override
+		public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+			return prepare(new StatementKey(sql, 3, resultSetType, resultSetConcurrency));
+		}
+
+		@Override
+		public String toString() {
+			return "Pooled" + pooled.connection;
+		}
+
+		// Prepares a statement through the connection's statement cache, or directly if the cache is turned off
+		private PreparedStatement prepare(StatementKey key) throws SQLException {
+			Connection connection = delegate();
+
+			return config.getStatementCacheSize() > 0 ? pooled.statements.prepare(this, key) : key.prepare(connection);
+		}
+	}
+}
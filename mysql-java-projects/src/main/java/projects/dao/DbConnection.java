@@ -1,13 +1,14 @@
 package projects.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import projects.exception.DbException;
 
 /*
- * This class is used to establish a connection with the projects database
+ * This class is used to establish a connection with the projects database. Connections are borrowed from a bounded pool that
+ * is created on first use, so closing a connection returns it to the pool instead of ending the session with the server.
  */
 
 public class DbConnection {
@@ -18,23 +19,133 @@ public class DbConnection {
 	private static String SCHEMA = "projects";
 	private static String USER = "projects";
 
-	public static Connection getConnection() {
-		// Creates the url used to get a connection
-		String url = String.format("jdbc:mysql://%s:%d/%s?user=%s&password=%s&useSSL=false", HOST, PORT, SCHEMA, USER,
-				PASSWORD);
+	// The number of server-side prepared statements the driver keeps per connection, and the longest SQL it will cache
+	private static int PREP_STMT_CACHE_SIZE = 256;
+	private static int PREP_STMT_CACHE_SQL_LIMIT = 4096;
+
+	private static PoolConfig poolConfig = new PoolConfig();
+
+	// Published through a volatile field, so borrowing a connection from an existing pool doesn't take a lock
+	private static volatile ConnectionPool pool;
 
+	// Guards creating, configuring and shutting down the pool. Creating the pool opens connections and shutting it down closes
+	// them, so this is a ReentrantLock: a virtual thread that waits for it, or does that I/O while holding it, doesn't pin its
+	// carrier thread as it would with synchronized.
+	private static final ReentrantLock POOL_LOCK = new ReentrantLock();
+
+	public static Connection getConnection() {
 		try {
-			// Establishes a connection with the database
-			Connection conn = DriverManager.getConnection(url);
-			System.out.println("Connection Successful!");
-			return conn;
+			// Borrows a connection from the pool
+			return getPool().borrow();
 
 			// If there is a SQLException, it throws a DbException. The DbException class turns a
 			// checked exception into an unchecked exception.
 		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Borrows a connection only if one is free right now. It returns null instead of waiting when every connection is in use.
+	public static Connection tryGetConnection() {
+		try {
+			return getPool().tryBorrow();
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Returns the pool counters (active, idle, waiters, wait times) so the pool can be sized for the traffic it receives
+	public static PoolStats getPoolStats() {
+		return getPool().getStats();
+	}
+
+	// Replaces the pool settings. It must be called before the first connection is requested.
+	public static void configurePool(PoolConfig config) {
+		POOL_LOCK.lock();
+
+		try {
+			if (pool != null) {
+				throw new IllegalStateException("The connection pool has already been created.");
+			}
+
+			config.validate();
+			poolConfig = config;
+		} finally {
+			POOL_LOCK.unlock();
+		}
+	}
+
+	public static PoolConfig getPoolConfig() {
+		POOL_LOCK.lock();
+
+		try {
+			return poolConfig;
+		} finally {
+			POOL_LOCK.unlock();
+		}
+	}
+
+	// Closes the pooled connections. A new pool is created if a connection is requested afterwards.
+	public static void shutdown() {
+		POOL_LOCK.lock();
+
+		try {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		} finally {
+			POOL_LOCK.unlock();
+		}
+	}
+
+	private static ConnectionPool getPool() {
+		ConnectionPool current = pool;
+
+		return current != null ? current : createPool();
+	}
+
+	// Creates the pool unless another thread has already created it
+	private static ConnectionPool createPool() {
+		POOL_LOCK.lock();
+
+		try {
+			if (pool == null) {
+				pool = openPool();
+			}
+
+			return pool;
+		} finally {
+			POOL_LOCK.unlock();
+		}
+	}
+
+	// Opens a pool with the current settings. It is called with the pool lock held.
+	private static ConnectionPool openPool() {
+		// Creates the url used to get a connection. useCursorFetch lets a statement's fetch size read rows from a server-side
+		// cursor in batches instead of buffering the whole result set in memory. allowMultiQueries lets several queries be sent
+		// in one request. rewriteBatchedStatements turns a batch of single-row INSERTs into multi-row INSERT statements.
+		// useServerPrepStmts has the server parse each statement once (useCursorFetch already requires it), and cachePrepStmts
+		// keeps those server-side statements for reuse after they are closed. The pool's own statement cache keeps the
+		// hottest statements open. The driver's cache catches the rest, such as IN lists and partial updates. The isolation
+		// level is only changed through setTransactionIsolation(), so alwaysSendSetIsolation=false lets the driver skip the
+		// round trip when the level is already set.
+		String url = String.format("jdbc:mysql://%s:%d/%s?user=%s&password=%s&useSSL=false&useCursorFetch=true"
+				+ "&allowMultiQueries=true&rewriteBatchedStatements=true&useServerPrepStmts=true&cachePrepStmts=true"
+				+ "&prepStmtCacheSize=%d&prepStmtCacheSqlLimit=%d&alwaysSendSetIsolation=false", HOST, PORT, SCHEMA, USER,
+				PASSWORD, PREP_STMT_CACHE_SIZE, PREP_STMT_CACHE_SQL_LIMIT);
+
+		ConnectionPool newPool = new ConnectionPool(url, poolConfig);
+
+		try {
+			newPool.prefill();
+		} catch (SQLException e) {
+			newPool.shutdown();
 			System.out.println("Connection Failed.");
 			throw new DbException(e);
 		}
+
+		return newPool;
 	}
 
 }
@@ -0,0 +1,226 @@
+package projects.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import projects.exception.DbException;
+
+/*
+ * Brings the projects database up to date by applying the versioned scripts in db/migration in order. Each applied version is
+ * recorded in the schema_version table with a checksum of its script, so a script runs once per database and the data is kept.
+ * Unlike projects-schema.sql, nothing is dropped. A script that has been changed after it was applied is reported as an error
+ * instead of being run again.
+ *
+ * Scripts are named V<version>__<description>.sql and must be added to MIGRATIONS. Statements in a script are separated by a
+ * semicolon at the end of a line. MySQL commits each DDL statement as it runs, and a version is only recorded after all of its
+ * statements succeed, so a script that fails part way is run again from the start. A script therefore holds a single DDL statement
+ * (which MySQL applies atomically), or statements that can all safely run again. Data that a new constraint would reject is fixed
+ * by its own script before the constraint is added.
+ */
+
+public class MigrationRunner {
+	private static final String MIGRATION_PATH = "db/migration/";
+	private static final String LOCK_NAME = "projects_schema_migration";
+	private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+	// @formatter:off
+	private static final List<String> MIGRATIONS = List.of(
+		"V1__create_tables.sql",
+		"V2__add_project_name_index.sql",
+		"V3__add_project_version.sql",
+		"V4__add_category_project_index.sql",
+		"V5__add_step_order_index.sql",
+		"V6__merge_duplicate_category_names.sql",
+		"V7__add_category_name_unique_index.sql"
+	);
+
+	private static final String CREATE_VERSION_TABLE_SQL = ""
+			+ "CREATE TABLE IF NOT EXISTS schema_version ("
+			+ "version INT NOT NULL, "
+			+ "script VARCHAR(255) NOT NULL, "
+			+ "checksum BIGINT NOT NULL, "
+			+ "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+			+ "execution_ms INT NOT NULL, "
+			+ "PRIMARY KEY (version))";
+	// @formatter:on
+
+	public static void main(String[] args) {
+		List<Integer> applied = new MigrationRunner().migrate();
+
+		System.out.println(applied.isEmpty() ? "The database is up to date." : "Applied versions " + applied);
+		DbConnection.shutdown();
+	}
+
+	/*
+	 * Applies the scripts that have not been applied to the database yet and returns their versions. Only one runner applies scripts
+	 * at a time; others wait for a named lock.
+	 */
+	public List<Integer> migrate() {
+		try (Connection conn = DbConnection.getConnection()) {
+			try (Statement statement = conn.createStatement()) {
+				statement.execute(CREATE_VERSION_TABLE_SQL);
+			}
+
+			acquireLock(conn);
+
+			try {
+				Map<Integer, Long> appliedChecksums = fetchAppliedVersions(conn);
+				List<Integer> applied = new ArrayList<>();
+
+				for (String script : MIGRATIONS) {
+					int version = versionOf(script);
+					List<String> statements = splitStatements(readScript(script));
+					long checksum = checksum(statements);
+					Long appliedChecksum = appliedChecksums.get(version);
+
+					if (Objects.nonNull(appliedChecksum)) {
+						if (appliedChecksum != checksum) {
+							throw new DbException("Migration " + script + " was changed after it was applied.");
+						}
+
+						continue;
+					}
+
+					apply(conn, version, script, statements, checksum);
+					applied.add(version);
+				}
+
+				return applied;
+
+			} finally {
+				releaseLock(conn);
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Runs the statements of one script and records its version
+	private void apply(Connection conn, int version, String script, List<String> statements, long checksum)
+			throws SQLException {
+		long start = System.currentTimeMillis();
+
+		try (Statement statement = conn.createStatement()) {
+			for (String sql : statements) {
+				statement.execute(sql);
+			}
+		} catch (SQLException e) {
+			throw new DbException("Migration " + script + " failed.", e);
+		}
+
+		String sql = "INSERT INTO schema_version (version, script, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+
+		try (PreparedStatement statement = conn.prepareStatement(sql)) {
+			statement.setInt(1, version);
+			statement.setString(2, script);
+			statement.setLong(3, checksum);
+			statement.setLong(4, System.currentTimeMillis() - start);
+			statement.executeUpdate();
+		}
+	}
+
+	private Map<Integer, Long> fetchAppliedVersions(Connection conn) throws SQLException {
+		Map<Integer, Long> versions = new HashMap<>();
+
+		try (Statement statement = conn.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+			while (resultSet.next()) {
+				versions.put(resultSet.getInt(1), resultSet.getLong(2));
+			}
+		}
+
+		return versions;
+	}
+
+	private void acquireLock(Connection conn) throws SQLException {
+		try (PreparedStatement statement = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+			statement.setString(1, LOCK_NAME);
+			statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+
+			try (ResultSet resultSet = statement.executeQuery()) {
+				if (!resultSet.next() || resultSet.getInt(1) != 1) {
+					throw new DbException("Timed out waiting for another migration to finish.");
+				}
+			}
+		}
+	}
+
+	private void releaseLock(Connection conn) throws SQLException {
+		try (PreparedStatement statement = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+			statement.setString(1, LOCK_NAME);
+			statement.executeQuery().close();
+		}
+	}
+
+	// Returns the number between the leading V and the double underscore
+	static int versionOf(String script) {
+		int separator = script.indexOf("__");
+
+		if (!script.startsWith("V") || separator < 2) {
+			throw new DbException("Invalid migration name: " + script);
+		}
+
+		return Integer.parseInt(script.substring(1, separator));
+	}
+
+	// Splits a script into statements. Comment lines are removed and a statement ends with a semicolon at the end of a line.
+	static List<String> splitStatements(String content) {
+		List<String> statements = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+
+		for (String line : content.split("\\R")) {
+			String trimmed = line.trim();
+
+			if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+				continue;
+			}
+
+			if (trimmed.endsWith(";")) {
+				current.append(trimmed, 0, trimmed.length() - 1);
+				statements.add(current.toString().trim());
+				current.setLength(0);
+			} else {
+				current.append(trimmed).append('\n');
+			}
+		}
+
+		if (!current.toString().isBlank()) {
+			statements.add(current.toString().trim());
+		}
+
+		return statements;
+	}
+
+	private String readScript(String script) {
+		try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(MIGRATION_PATH + script)) {
+			if (Objects.isNull(in)) {
+				throw new DbException("Migration script not found: " + script);
+			}
+
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+		} catch (IOException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// The checksum is taken over the parsed statements so that comments, blank lines and line endings don't change it
+	static long checksum(List<String> statements) {
+		CRC32 crc = new CRC32();
+		crc.update(String.join("\n", statements).getBytes(StandardCharsets.UTF_8));
+
+		return crc.getValue();
+	}
+}
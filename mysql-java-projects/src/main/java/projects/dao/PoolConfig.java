@@ -0,0 +1,101 @@
+package projects.dao;
+
+/*
+ * Holds the sizing and timing settings used by the ConnectionPool class. The defaults suit the menu-driven application; callers
+ * with heavier traffic can adjust them before the pool is created.
+ */
+
+public class PoolConfig {
+	private int minSize = 2;
+	private int maxSize = 10;
+	private long borrowTimeoutMillis = 30_000;
+	private long idleTimeoutMillis = 600_000;
+	private long leakThresholdMillis = 0;
+	private long maintenanceIntervalMillis = 30_000;
+	private int validationTimeoutSeconds = 2;
+	private int statementCacheSize = 64;
+
+	public int getMinSize() {
+		return minSize;
+	}
+
+	public void setMinSize(int minSize) {
+		this.minSize = minSize;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public long getBorrowTimeoutMillis() {
+		return borrowTimeoutMillis;
+	}
+
+	public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+	}
+
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+		this.idleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	/*
+	 * How long a connection can be held before it is reported as a possible leak. A value of 0 (the default) turns leak detection
+	 * off. When it is on, every borrow captures the borrower's stack trace, so it is meant for tracking down a leak, not for normal use.
+	 */
+	public long getLeakThresholdMillis() {
+		return leakThresholdMillis;
+	}
+
+	public void setLeakThresholdMillis(long leakThresholdMillis) {
+		this.leakThresholdMillis = leakThresholdMillis;
+	}
+
+	public long getMaintenanceIntervalMillis() {
+		return maintenanceIntervalMillis;
+	}
+
+	public void setMaintenanceIntervalMillis(long maintenanceIntervalMillis) {
+		this.maintenanceIntervalMillis = maintenanceIntervalMillis;
+	}
+
+	public int getValidationTimeoutSeconds() {
+		return validationTimeoutSeconds;
+	}
+
+	public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+	}
+
+	// The number of prepared statements kept open on each pooled connection for reuse. A value of 0 turns the cache off.
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	// Checks that the settings are usable. It throws an exception if they are not.
+	void validate() {
+		if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+		}
+
+		if (borrowTimeoutMillis < 0 || idleTimeoutMillis < 0 || leakThresholdMillis < 0 || maintenanceIntervalMillis <= 0) {
+			throw new IllegalArgumentException("Pool timeouts must not be negative.");
+		}
+
+		if (statementCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid statement cache size: " + statementCacheSize);
+		}
+	}
+}
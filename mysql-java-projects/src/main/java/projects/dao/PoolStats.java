@@ -0,0 +1,116 @@
+package projects.dao;
+
+/*
+ * A point-in-time snapshot of the ConnectionPool counters. It is used to size the pool: if waiters and wait times stay high,
+ * the maximum size is too small. If most connections stay idle, the minimum size is too large.
+ */
+
+public class PoolStats {
+	private final int active;
+	private final int idle;
+	private final int waiters;
+	private final long borrowCount;
+	private final long totalWaitNanos;
+	private final long maxWaitNanos;
+	private final long timeoutCount;
+	private final long createdCount;
+	private final long destroyedCount;
+	private final long leakCount;
+	private final long statementCacheHits;
+	private final long statementCacheMisses;
+	private final long statementCacheEvictions;
+
+	PoolStats(int active, int idle, int waiters, long borrowCount, long totalWaitNanos, long maxWaitNanos,
+			long timeoutCount, long createdCount, long destroyedCount, long leakCount, long statementCacheHits,
+			long statementCacheMisses, long statementCacheEvictions) {
+		this.active = active;
+		this.idle = idle;
+		this.waiters = waiters;
+		this.borrowCount = borrowCount;
+		this.totalWaitNanos = totalWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+		this.timeoutCount = timeoutCount;
+		this.createdCount = createdCount;
+		this.destroyedCount = destroyedCount;
+		this.leakCount = leakCount;
+		this.statementCacheHits = statementCacheHits;
+		this.statementCacheMisses = statementCacheMisses;
+		this.statementCacheEvictions = statementCacheEvictions;
+	}
+
+	// Connections currently borrowed by callers
+	public int getActive() {
+		return active;
+	}
+
+	// Open connections waiting in the pool
+	public int getIdle() {
+		return idle;
+	}
+
+	// Callers currently blocked waiting for a connection
+	public int getWaiters() {
+		return waiters;
+	}
+
+	public long getBorrowCount() {
+		return borrowCount;
+	}
+
+	public long getTotalWaitNanos() {
+		return totalWaitNanos;
+	}
+
+	public long getMaxWaitNanos() {
+		return maxWaitNanos;
+	}
+
+	public double getAverageWaitMillis() {
+		return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+	}
+
+	public long getTimeoutCount() {
+		return timeoutCount;
+	}
+
+	public long getCreatedCount() {
+		return createdCount;
+	}
+
+	public long getDestroyedCount() {
+		return destroyedCount;
+	}
+
+	public long getLeakCount() {
+		return leakCount;
+	}
+
+	// Statements that were reused from a connection's statement cache instead of being prepared again
+	public long getStatementCacheHits() {
+		return statementCacheHits;
+	}
+
+	// Statements that had to be prepared because they were not in the connection's statement cache
+	public long getStatementCacheMisses() {
+		return statementCacheMisses;
+	}
+
+	// Cached statements that were closed to make room for other statements. If this keeps growing, the cache is too small.
+	public long getStatementCacheEvictions() {
+		return statementCacheEvictions;
+	}
+
+	public double getStatementCacheHitRate() {
+		long lookups = statementCacheHits + statementCacheMisses;
+		return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return "active=" + active + ", idle=" + idle + ", waiters=" + waiters + ", borrows=" + borrowCount
+				+ ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) + ", maxWaitMs=" + maxWaitNanos / 1_000_000
+				+ ", timeouts=" + timeoutCount + ", created=" + createdCount + ", destroyed=" + destroyedCount
+				+ ", leaks=" + leakCount + ", stmtCacheHitRate=" + String.format("%.3f", getStatementCacheHitRate())
+				+ ", stmtCacheEvictions=" + statementCacheEvictions;
+	}
+}
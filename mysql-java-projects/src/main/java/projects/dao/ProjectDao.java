@@ -5,16 +5,51 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import projects.entity.Category;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import projects.entity.CategoryCount;
+import projects.entity.FixedPoint;
 import projects.entity.Material;
 import projects.entity.Project;
+import projects.entity.ProjectCost;
+import projects.entity.ProjectSummary;
+import projects.entity.ReadOnlyCategory;
 import projects.entity.Step;
+import projects.exception.BatchInsertException;
 import projects.exception.DbException;
+import projects.metrics.InMemoryMetricsSink;
+import projects.metrics.MetricsSink;
+import projects.metrics.QueryTimer;
+import provided.util.ColumnBinder;
 import provided.util.DaoBase;
+import provided.util.ParameterBinder;
+import provided.util.RowMapper;
 
 /*
  * This class reads and writes to the tables in the projects database (the DAO layer of the application). It can insert a project into the project table  
@@ -28,36 +63,169 @@ public class ProjectDao extends DaoBase {
 	private static final String PROJECT_CATEGORY_TABLE = "project_category";
 	private static final String STEP_TABLE = "step";
 
+	// The number of rows read from the server at a time when project summaries are listed
+	private static final int DEFAULT_SUMMARY_FETCH_SIZE = 500;
+
+	// The maximum number of IDs in one IN (...) list when many projects are loaded at once
+	private static final int ID_CHUNK_SIZE = 1000;
+
+	// The most rows a page list is sized for before any row is read. A larger page grows its list as the rows arrive.
+	private static final int PAGE_PRESIZE_LIMIT = 1000;
+
+	// The parameter binders, looked up once so binding a parameter is a direct call to the driver setter for its type
+	private static final ParameterBinder<Integer> INTEGER = ParameterBinder.forClass(Integer.class);
+	private static final ParameterBinder<String> STRING = ParameterBinder.forClass(String.class);
+	private static final ParameterBinder<BigDecimal> DECIMAL = ParameterBinder.forClass(BigDecimal.class);
+
+	// The project columns that modifyProjectDetails() can change. They are always listed in this order so the same set of changed
+	// fields produces the same SQL.
+	private static final List<DetailColumn<?>> PROJECT_DETAIL_COLUMNS = List.of(
+			new DetailColumn<>("projectName", "project_name", STRING, Project::getProjectName),
+			new DetailColumn<>("estimatedHours", "estimated_hours", DECIMAL, Project::getEstimatedHours),
+			new DetailColumn<>("actualHours", "actual_hours", DECIMAL, Project::getActualHours),
+			new DetailColumn<>("difficulty", "difficulty", INTEGER, Project::getDifficulty),
+			new DetailColumn<>("notes", "notes", STRING, Project::getNotes));
+
+	// @formatter:off
+	// The queries used to load a project and its children. They are shared by the sequential and single-round-trip load modes.
+	private static final String PROJECT_BY_ID_SQL = "SELECT * FROM " + PROJECT_TABLE + " WHERE project_id = ?";
+
+	private static final String MATERIALS_FOR_PROJECT_SQL = "SELECT * FROM " + MATERIAL_TABLE
+			+ " WHERE project_id = ?";
+
+	private static final String STEPS_FOR_PROJECT_SQL = "SELECT * FROM " + STEP_TABLE
+			+ " WHERE project_id = ? ORDER BY step_order";
+
+	// Only the category IDs are read. The categories themselves come from the CategoryDictionary.
+	private static final String CATEGORIES_FOR_PROJECT_SQL = "SELECT category_id FROM " + PROJECT_CATEGORY_TABLE
+			+ " WHERE project_id = ?";
+
+	// The statements used to insert projects and their children
+	private static final String INSERT_PROJECT_SQL = "INSERT INTO " + PROJECT_TABLE + " "
+			+ "(project_name, estimated_hours, actual_hours, difficulty, notes) "
+			+ "VALUES (?, ?, ?, ?, ?)";
+
+	private static final String INSERT_MATERIAL_SQL = "INSERT INTO " + MATERIAL_TABLE + " "
+			+ "(project_id, material_name, num_required, cost) "
+			+ "VALUES (?, ?, ?, ?)";
+
+	private static final String INSERT_STEP_SQL = "INSERT INTO " + STEP_TABLE + " "
+			+ "(project_id, step_text, step_order) "
+			+ "VALUES (?, ?, ?)";
+
+	private static final String INSERT_PROJECT_CATEGORY_SQL = "INSERT INTO " + PROJECT_CATEGORY_TABLE + " "
+			+ "(project_id, category_id) "
+			+ "VALUES (?, ?)";
+
+	// Links added to existing projects. A link that was added by someone else since the links were read is skipped.
+	private static final String INSERT_IGNORE_PROJECT_CATEGORY_SQL = "INSERT IGNORE INTO " + PROJECT_CATEGORY_TABLE + " "
+			+ "(project_id, category_id) "
+			+ "VALUES (?, ?)";
+
+	// The binders of the parameters of INSERT_PROJECT_SQL, INSERT_MATERIAL_SQL and INSERT_STEP_SQL, in column order
+	private static final List<ColumnBinder<Project>> PROJECT_INSERT_BINDERS = columnBinders(Project.class,
+			"project_name", "estimated_hours", "actual_hours", "difficulty", "notes");
+
+	private static final List<ColumnBinder<Material>> MATERIAL_INSERT_BINDERS = columnBinders(Material.class,
+			"project_id", "material_name", "num_required", "cost");
+
+	private static final List<ColumnBinder<Step>> STEP_INSERT_BINDERS = columnBinders(Step.class,
+			"project_id", "step_text", "step_order");
+
+	// The four queries above sent as one multi-statement request. Each takes the project ID as its only parameter.
+	private static final String PROJECT_AGGREGATE_SQL = PROJECT_BY_ID_SQL + "; "
+			+ MATERIALS_FOR_PROJECT_SQL + "; "
+			+ STEPS_FOR_PROJECT_SQL + "; "
+			+ CATEGORIES_FOR_PROJECT_SQL;
+
+	// The other fixed statements. Each one is built once, so every call prepares the same SQL text and reuses the statement
+	// cached on the pooled connection.
+	private static final String ALL_PROJECTS_SQL = "SELECT * FROM " + PROJECT_TABLE
+			+ " ORDER BY project_name, project_id";
+
+	private static final String FIRST_PROJECT_PAGE_SQL = "SELECT * FROM " + PROJECT_TABLE
+			+ " ORDER BY project_name, project_id LIMIT ?";
+
+	private static final String NEXT_PROJECT_PAGE_SQL = "SELECT * FROM " + PROJECT_TABLE
+			+ " WHERE project_name > ? OR (project_name = ? AND project_id > ?)"
+			+ " ORDER BY project_name, project_id LIMIT ?";
+
+	private static final String ALL_PROJECT_SUMMARIES_SQL = "SELECT project_id, project_name FROM " + PROJECT_TABLE
+			+ " ORDER BY project_name, project_id";
+
+	private static final String CATEGORY_COUNTS_SQL = "SELECT c.category_id, COUNT(pc.project_id) FROM " + CATEGORY_TABLE + " c"
+			+ " LEFT JOIN " + PROJECT_CATEGORY_TABLE + " pc USING (category_id)"
+			+ " GROUP BY c.category_id ORDER BY c.category_id";
+
+	/*
+	 * The hours and material cost of each project as whole hundredths, so they are read as BIGINT values instead of DECIMALs. A
+	 * DECIMAL(7, 2) times 100 is a whole number, so the casts are exact. A material without a cost or quantity adds nothing.
+	 */
+	private static final String PROJECT_COSTS_SQL = "SELECT p.project_id, p.project_name,"
+			+ " CAST(p.estimated_hours * 100 AS SIGNED), CAST(p.actual_hours * 100 AS SIGNED), COUNT(m.material_id),"
+			+ " CAST(COALESCE(SUM(m.cost * m.num_required), 0) * 100 AS SIGNED)"
+			+ " FROM " + PROJECT_TABLE + " p LEFT JOIN " + MATERIAL_TABLE + " m USING (project_id)"
+			+ " GROUP BY p.project_id ORDER BY p.project_id";
+
+	private static final String PROJECT_VERSION_SQL = "SELECT version FROM " + PROJECT_TABLE
+			+ " WHERE project_id = ?";
+
+	private static final String DELETE_PROJECT_SQL = "DELETE FROM " + PROJECT_TABLE
+			+ " WHERE project_id = ?";
+	// @formatter:on
+
+	// The metrics shared by every ProjectDao that has not been given its own sink
+	private static final InMemoryMetricsSink DEFAULT_METRICS = new InMemoryMetricsSink();
+
+	// Used to shorten the IN (...) lists in statement names, so the padded list sizes of a statement share one name
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern ROW_IN_LIST = Pattern.compile("IN \\((\\(\\?(?:, \\?)*\\))(?:, \\1)*\\)");
+	private static final Pattern IN_LIST = Pattern.compile("IN \\(\\?(?:, \\?)*\\)");
+
+	// The metrics name of each SQL text the DAO has run. The SQL is built from a fixed set of shapes, so this stays small.
+	private static final Map<String, String> STATEMENT_NAMES = new ConcurrentHashMap<>();
+
+	// The categories shared by every ProjectDao, so each category is read and held in memory once
+	private static final CategoryDictionary CATEGORY_DICTIONARY = new CategoryDictionary();
+
+	/*
+	 * Runs the child queries of the PARALLEL load mode. Each query is submitted with the pooled connection it runs on already
+	 * borrowed, so the number of busy threads is bounded by the pool's maximum size and the executor needs no size of its own: it
+	 * starts a thread when none is idle, and idle threads end after a minute. The threads are daemons so they don't keep the
+	 * application running.
+	 */
+	private static final ExecutorService CHILD_FETCH_EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+			new SynchronousQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "project-child-fetch");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private AggregateLoadMode loadMode = AggregateLoadMode.SINGLE_ROUND_TRIP;
+	private MetricsSink metrics = DEFAULT_METRICS;
+	private SlowQueryLog slowQueryLog;
+	private CategoryDictionary categoryDictionary = CATEGORY_DICTIONARY;
+
 	//Inserts a row into the project table
 	public Project insertProject(Project project) {
-		// @formatter:off
-		// The sql String is used to create a SQL statement
-		String sql = ""
-			+ "INSERT INTO " + PROJECT_TABLE + " "
-			+ "(project_name, estimated_hours, actual_hours, difficulty, notes)"
-			+ "VALUES "
-			+ "(?, ?, ?, ?, ?)";
-		// @formatter:on
-		
 		//Creates a connection with the database
-		try (Connection conn = DbConnection.getConnection()) {	
+		try (Connection conn = getConnection()) {	
 			startTransaction(conn);
 			
-			//Creates a SQL statement using the sql String. It sets the parameters with the values input by the users 
-			try (PreparedStatement statement = conn.prepareStatement(sql)) {	
-				setParameter(statement, 1, project.getProjectName(), String.class);
-				setParameter(statement, 2, project.getEstimatedHours(), BigDecimal.class);
-				setParameter(statement, 3, project.getActualHours(), BigDecimal.class);
-				setParameter(statement, 4, project.getDifficulty(), Integer.class);
-				setParameter(statement, 5, project.getNotes(), String.class);
+			//Creates a SQL statement that returns the generated project ID. It sets the parameters with the values input by the users 
+			try (PreparedStatement statement = conn.prepareStatement(INSERT_PROJECT_SQL, Statement.RETURN_GENERATED_KEYS)) {	
+				bindProject(statement, project);
 				
-				//Executes the SQL statement
-				statement.executeUpdate();			
-				Integer projectId = getLastInsertId(conn, PROJECT_TABLE);
+				//Executes the SQL statement and reads the project ID from its response
+				executeUpdate(statement, INSERT_PROJECT_SQL);
+				Integer projectId = getGeneratedId(statement);
 				
 				commitTransaction(conn);
 				
+				// The project is saved, so its fields are no longer dirty
 				project.setProjectId(projectId);
+				project.setVersion(0);
+				project.clearDirtyFields();
 				
 				return project; //Returns the project with the project ID
 				
@@ -72,26 +240,218 @@ public class ProjectDao extends DaoBase {
 		}
 	}
 
+	/*
+	 * Inserts many projects together with their materials, steps and category links. Rows are sent with JDBC batches of up to
+	 * batchSize rows, which the driver rewrites into multi-row INSERT statements. The generated IDs are set on every project, material
+	 * and step. The categories must already exist; only their IDs are used. Each group of batchSize projects (with its children) is
+	 * committed as one transaction, so a failure rolls back the group being inserted but not the groups before it. The IDs set on the
+	 * rolled-back group are cleared again, and a BatchInsertException tells the caller how many projects were committed.
+	 */
+	public List<Project> insertProjects(List<Project> projects, int batchSize) {
+		if (batchSize < 1) {
+			throw new DbException("Batch size must be at least 1.");
+		}
+
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			int committed = 0;
+
+			// @formatter:off
+			try (PreparedStatement projectStatement = conn.prepareStatement(INSERT_PROJECT_SQL, Statement.RETURN_GENERATED_KEYS);
+					PreparedStatement materialStatement = conn.prepareStatement(INSERT_MATERIAL_SQL, Statement.RETURN_GENERATED_KEYS);
+					PreparedStatement stepStatement = conn.prepareStatement(INSERT_STEP_SQL, Statement.RETURN_GENERATED_KEYS);
+					PreparedStatement categoryStatement = conn.prepareStatement(INSERT_PROJECT_CATEGORY_SQL)) {
+			// @formatter:on
+
+				for (int from = 0; from < projects.size(); from += batchSize) {
+					List<Project> chunk = projects.subList(from, Math.min(from + batchSize, projects.size()));
+
+					insertBatch(projectStatement, INSERT_PROJECT_SQL, chunk, batchSize, this::bindProject, (project, projectId) -> {
+						project.setProjectId(projectId);
+						project.setVersion(0);
+					});
+
+					List<Material> materials = new ArrayList<>();
+					List<Step> steps = new ArrayList<>();
+					List<ReadOnlyCategory> categories = new ArrayList<>();
+					List<Integer> categoryProjectIds = new ArrayList<>();
+
+					// Copies the new project IDs to the children. Steps without an order are numbered in list order.
+					for (Project project : chunk) {
+						for (Material material : project.getMaterials()) {
+							material.setProjectId(project.getProjectId());
+							materials.add(material);
+						}
+
+						int stepOrder = 1;
+
+						for (Step step : project.getSteps()) {
+							step.setProjectId(project.getProjectId());
+
+							if (Objects.isNull(step.getStepOrder())) {
+								step.setStepOrder(stepOrder);
+							}
+
+							stepOrder++;
+							steps.add(step);
+						}
+
+						for (ReadOnlyCategory category : project.getCategories()) {
+							categories.add(category);
+							categoryProjectIds.add(project.getProjectId());
+						}
+					}
+
+					insertBatch(materialStatement, INSERT_MATERIAL_SQL, materials, batchSize, this::bindMaterial, Material::setMaterialId);
+					insertBatch(stepStatement, INSERT_STEP_SQL, steps, batchSize, this::bindStep, Step::setStepId);
+					insertCategoryLinks(categoryStatement, categoryProjectIds, categories, batchSize);
+
+					commitTransaction(conn);
+					committed += chunk.size();
+
+					// The group is saved, so its fields are no longer dirty. A rolled-back group keeps them.
+					for (Project project : chunk) {
+						project.clearDirtyFields();
+					}
+				}
+
+				return projects;
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				clearInsertedIds(projects.subList(committed, Math.min(committed + batchSize, projects.size())));
+				throw new BatchInsertException(committed, projects.size(), e);
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Clears the IDs that were set on projects whose rows were rolled back, so they can't be mistaken for saved projects
+	private void clearInsertedIds(List<Project> projects) {
+		for (Project project : projects) {
+			project.setProjectId(null);
+			project.setVersion(null);
+
+			for (Material material : project.getMaterials()) {
+				material.setMaterialId(null);
+				material.setProjectId(null);
+			}
+
+			for (Step step : project.getSteps()) {
+				step.setStepId(null);
+				step.setProjectId(null);
+			}
+		}
+	}
+
+	/*
+	 * Adds the rows to the statement's batch and executes it every batchSize rows. If keySetter is not null, the generated key of each
+	 * row is read back in insertion order and set on the row.
+	 */
+	private <T> void insertBatch(PreparedStatement statement, String sql, List<T> rows, int batchSize, RowBinder<T> binder,
+			BiConsumer<T, Integer> keySetter) throws SQLException {
+		for (int from = 0; from < rows.size(); from += batchSize) {
+			List<T> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+
+			for (T row : batch) {
+				binder.bind(statement, row);
+				statement.addBatch();
+			}
+
+			executeBatch(statement, sql);
+
+			if (Objects.nonNull(keySetter)) {
+				List<Integer> keys = getGeneratedIds(statement);
+
+				if (keys.size() != batch.size()) {
+					throw new SQLException("Expected " + batch.size() + " generated keys but received " + keys.size() + ".");
+				}
+
+				for (int index = 0; index < batch.size(); index++) {
+					keySetter.accept(batch.get(index), keys.get(index));
+				}
+			}
+		}
+	}
+
+	// Inserts project_category rows. The project ID of each category link is at the same position in projectIds.
+	private void insertCategoryLinks(PreparedStatement statement, List<Integer> projectIds,
+			List<ReadOnlyCategory> categories, int batchSize) throws SQLException {
+		for (int from = 0; from < categories.size(); from += batchSize) {
+			int to = Math.min(from + batchSize, categories.size());
+
+			for (int index = from; index < to; index++) {
+				INTEGER.bind(statement, 1, projectIds.get(index));
+				INTEGER.bind(statement, 2, categories.get(index).getCategoryId());
+				statement.addBatch();
+			}
+
+			executeBatch(statement, INSERT_PROJECT_CATEGORY_SQL);
+		}
+	}
+
+	// Sets the parameters of INSERT_PROJECT_SQL
+	private void bindProject(PreparedStatement statement, Project project) throws SQLException {
+		bindColumns(statement, PROJECT_INSERT_BINDERS, project);
+	}
+
+	// Sets the parameters of INSERT_MATERIAL_SQL
+	private void bindMaterial(PreparedStatement statement, Material material) throws SQLException {
+		bindColumns(statement, MATERIAL_INSERT_BINDERS, material);
+	}
+
+	// Sets the parameters of INSERT_STEP_SQL
+	private void bindStep(PreparedStatement statement, Step step) throws SQLException {
+		bindColumns(statement, STEP_INSERT_BINDERS, step);
+	}
+
+	// A project field that can be updated on its own, with the column it is stored in and how to read and bind its value
+	private static final class DetailColumn<T> {
+		private final String field;
+		private final String column;
+		private final ParameterBinder<T> binder;
+		private final Function<Project, T> getter;
+
+		DetailColumn(String field, String column, ParameterBinder<T> binder, Function<Project, T> getter) {
+			this.field = field;
+			this.column = column;
+			this.binder = binder;
+			this.getter = getter;
+		}
+
+		void bind(PreparedStatement statement, int parameterIndex, Project project) throws SQLException {
+			binder.bind(statement, parameterIndex, getter.apply(project));
+		}
+	}
+
+	// Sets the parameters of a prepared statement from the fields of a row object
+	@FunctionalInterface
+	private interface RowBinder<T> {
+		void bind(PreparedStatement statement, T row) throws SQLException;
+	}
+
 	//Fetches all of the projects from the project table
 	public List<Project> fetchAllProjects() {
-		String sql = "SELECT * FROM " 
-					 + PROJECT_TABLE 
-					 + " ORDER BY project_name"; 
+		String sql = ALL_PROJECTS_SQL;
 		
-		try (Connection conn = DbConnection.getConnection()) {
+		try (Connection conn = getConnection()) {
 			startTransaction(conn);
 			
 			try (PreparedStatement statement = conn.prepareStatement(sql)) {
 				
 				// Fetches the projects when it executes the query and returns a result set. The result set contains the rows of the project table.
-				try (ResultSet resultSet = statement.executeQuery()) {
-					List<Project> projects = new LinkedList<>();
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					List<Project> projects = new ArrayList<>();
+					RowMapper<Project> mapper = rowMapper(resultSet, Project.class);
 					
 					// Sets the values of the Project objects' fields using the data retrieved from the result set
 					while (resultSet.next()) {
-						projects.add(extract(resultSet, Project.class)); //Adds each object to the projects list
+						projects.add(mapper.map(resultSet)); //Adds each object to the projects list
 					}
 					
+					timer.success(projects.size());
 					return projects;
 			
 				}
@@ -104,183 +464,1397 @@ public class ProjectDao extends DaoBase {
 		}		
 	}
 
-	//Fetches the selected project from the project table using its project ID. It also fetches the project's categories, steps and materials.
-	public Optional<Project> fetchProjectById(Integer projectId) {
-		String sql = "SELECT * FROM "
-					+ PROJECT_TABLE 
-					+ " WHERE project_id = ?";
-		
-		try (Connection conn = DbConnection.getConnection()) {
+	/*
+	 * Fetches one page of projects in (project_name, project_id) order. The page starts after the project with the given name and
+	 * ID, which are the name and ID of the last project on the previous page. If afterProjectName is null, the first page is returned.
+	 * Because the page is located by key instead of by OFFSET, every page costs the same no matter how deep into the table it is.
+	 */
+	public List<Project> fetchProjectPage(String afterProjectName, Integer afterProjectId, int pageSize) {
+		checkPageSize(pageSize);
+
+		String sql = Objects.isNull(afterProjectName) ? FIRST_PROJECT_PAGE_SQL : NEXT_PROJECT_PAGE_SQL;
+
+		try (Connection conn = getConnection()) {
 			startTransaction(conn);
-			
-			try {
-				Project project = null;
-				
-				try (PreparedStatement statement = conn.prepareStatement(sql)) {
-					setParameter(statement, 1, projectId, Integer.class);
-					
-				
-					// Sets the values of the Project object's fields using the data retrieved from the result set. The result set only 
-					// contains one row with the data of the project selected by the user. 
-					try (ResultSet resultSet = statement.executeQuery()) {
-						if (resultSet.next()) {
-							project = extract(resultSet, Project.class);
-									
-						}
-					}
+
+			try (PreparedStatement statement = conn.prepareStatement(sql)) {
+				int index = 1;
+
+				if (Objects.nonNull(afterProjectName)) {
+					STRING.bind(statement, index++, afterProjectName);
+					STRING.bind(statement, index++, afterProjectName);
+					INTEGER.bind(statement, index++, Objects.isNull(afterProjectId) ? 0 : afterProjectId);
 				}
-				
-				// Fetches the material, step, and category data of the project if the Project object is not null
-				if (Objects.nonNull(project)) {
-					project.getMaterials().addAll(fetchMaterialsForProject(conn, projectId));
-					project.getSteps().addAll(fetchStepsForProject(conn, projectId));
-					project.getCategories().addAll(fetchCategoriesForProject(conn, projectId));
+
+				INTEGER.bind(statement, index, pageSize);
+
+				// The page has at most pageSize rows
+				List<Project> projects = new ArrayList<>(Math.min(pageSize, PAGE_PRESIZE_LIMIT));
+
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					RowMapper<Project> mapper = rowMapper(resultSet, Project.class);
+
+					while (resultSet.next()) {
+						projects.add(mapper.map(resultSet));
+					}
+
+					timer.success(projects.size());
 				}
-				
+
 				commitTransaction(conn);
-				
-				return Optional.ofNullable(project);
 
-			} catch (Exception e){
+				return projects;
+			} catch (Exception e) {
 				rollbackTransaction(conn);
 				throw new DbException(e);
 			}
-			
 		} catch (SQLException e) {
 			throw new DbException(e);
 		}
-	
 	}
 
-	//Fetches the category data of a project using the category and project category tables 
-	private List<Category> fetchCategoriesForProject(Connection conn, Integer projectId) throws SQLException {
-		// @formatter:off
-		String sql = "SELECT c.* FROM " + CATEGORY_TABLE + " c " 
-					+ "JOIN " + PROJECT_CATEGORY_TABLE + " pc USING (category_id) "
-					+ "WHERE project_id = ?";
-		// @formatter:on 
+	private static void checkPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new DbException("Page size must be at least 1.");
+		}
+	}
 
-		try (PreparedStatement statement = conn.prepareStatement(sql)) {
-			setParameter(statement, 1, projectId, Integer.class);
+	/*
+	 * Reads every project in (project_name, project_id) order and passes each one to the action as soon as it is read. The rows are
+	 * read through a server-side cursor, fetchSize rows at a time, so memory use does not depend on the size of the project table.
+	 */
+	public void forEachProject(int fetchSize, Consumer<Project> action) {
+		try (Stream<Project> projects = streamAllProjects(fetchSize)) {
+			projects.forEach(action);
+		}
+	}
 
-			try (ResultSet resultSet = statement.executeQuery()) {
-				List<Category> categories = new LinkedList<>();
+	/*
+	 * Returns the projects in (project_name, project_id) order as a lazily read stream. The rows are read through a server-side
+	 * cursor, fetchSize rows at a time. The stream holds a pooled connection until it is closed, so it must be used in a
+	 * try-with-resources block.
+	 */
+	public Stream<Project> streamAllProjects(int fetchSize) {
+		String sql = ALL_PROJECTS_SQL;
 
-				// Sets the values of the Category objects' fields using the data retrieved from the
-				// result set. It adds the objects to the categories list.
-				while (resultSet.next()) {
-					categories.add(extract(resultSet, Category.class));
+		Connection conn = getConnection();
+
+		try {
+			startTransaction(conn);
+
+			// A forward-only, read-only result set with a fetch size makes the driver read the rows in batches from a cursor
+			PreparedStatement statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+			/*
+			 * The query is timed until the stream is closed, since the rows are fetched as the stream is read. It is recorded with the
+			 * rows that were read, and as failed if reading a row failed.
+			 */
+			QueryTimer timer = startTimer(sql, statement);
+
+			// The statement is closed here if the query fails. Once the stream is returned, closing the stream closes it.
+			try {
+				statement.setFetchSize(fetchSize);
+
+				ResultSet resultSet = statement.executeQuery();
+				RowMapper<Project> mapper = rowMapper(resultSet, Project.class);
+				timer.success(0);
+
+				Spliterator<Project> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+						Spliterator.ORDERED | Spliterator.NONNULL) {
+					private long rows;
+
+					@Override
+					public boolean tryAdvance(Consumer<? super Project> action) {
+						try {
+							if (!resultSet.next()) {
+								timer.success(rows);
+								return false;
+							}
+
+							Project project = mapper.map(resultSet);
+							timer.success(++rows);
+							action.accept(project);
+							return true;
+
+						} catch (SQLException e) {
+							timer.fail();
+							throw new DbException(e);
+						}
+					}
+				};
+
+				// Closing the stream closes the cursor and gives the connection back to the pool
+				return StreamSupport.stream(spliterator, false).onClose(() -> {
+					try (conn; statement) {
+						// The cursor is closed before the query is recorded, so the time includes closing it
+						try (timer) {
+							resultSet.close();
+						}
+
+						commitTransaction(conn);
+					} catch (SQLException e) {
+						throw new DbException(e);
+					}
+				});
+			} catch (Exception e) {
+				timer.close();
+
+				try {
+					statement.close();
+				} catch (SQLException suppressed) {
+					e.addSuppressed(suppressed);
 				}
 
-				return categories;
+				throw e;
+			}
+
+		} catch (Exception e) {
+			try (conn) {
+				rollbackTransaction(conn);
+			} catch (SQLException suppressed) {
+				e.addSuppressed(suppressed);
 			}
+
+			throw new DbException(e);
 		}
 	}
 
-	// Fetches the steps of a project from the step table
-	private List<Step> fetchStepsForProject(Connection conn, Integer projectId) throws SQLException {
-		// @formatter:off
-		String sql = "SELECT * FROM " + STEP_TABLE
-				   + " WHERE project_id = ?";
-		// @formatter:on 
+	// Fetches the ID and name of every project, in name order. It is used for listings, which don't need the other project columns.
+	public List<ProjectSummary> fetchProjectSummaries() {
+		List<ProjectSummary> summaries = new ArrayList<>();
+		forEachProjectSummary(DEFAULT_SUMMARY_FETCH_SIZE, summaries::add);
 
-		try (PreparedStatement statement = conn.prepareStatement(sql)) {
-			setParameter(statement, 1, projectId, Integer.class);
+		return summaries;
+	}
 
-			try (ResultSet resultSet = statement.executeQuery()) {
-				List<Step> steps = new LinkedList<>();
+	/*
+	 * Reads the ID and name of every project in (project_name, project_id) order and passes each one to the action as soon as it is
+	 * read. Only the two columns are selected, so the notes column is never sent over the network.
+	 */
+	public void forEachProjectSummary(int fetchSize, Consumer<ProjectSummary> action) {
+		String sql = ALL_PROJECT_SUMMARIES_SQL;
 
-				// Sets the values of the Step objects' fields using the data retrieved from the result
-				// set. It adds the objects to the steps list.
-				while (resultSet.next()) {
-					steps.add(extract(resultSet, Step.class));
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			try (PreparedStatement statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				statement.setFetchSize(fetchSize);
+
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					long rows = 0;
+
+					while (resultSet.next()) {
+						action.accept(new ProjectSummary(resultSet.getInt(1), resultSet.getString(2)));
+						rows++;
+					}
+
+					timer.success(rows);
 				}
 
-				return steps;
+				commitTransaction(conn);
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				throw new DbException(e);
 			}
+		} catch (SQLException e) {
+			throw new DbException(e);
 		}
 	}
 
-	//Fetches the materials used for a project from the material table
-	private List<Material> fetchMaterialsForProject(Connection conn, Integer projectId) throws SQLException {
-		// @formatter:off
-		String sql = "SELECT * FROM " + MATERIAL_TABLE
-				   + " WHERE project_id = ?";
-		// @formatter:on 
+	/*
+	 * Reads the hours and material cost of every project, in project ID order, and passes each one to the action as soon as it is
+	 * read. This is the compact alternative to loading the projects with their materials: the server does the rollup and the values
+	 * are read as longs of hundredths, so no BigDecimal is created per row.
+	 */
+	public void forEachProjectCost(int fetchSize, Consumer<ProjectCost> action) {
+		String sql = PROJECT_COSTS_SQL;
 
-		try (PreparedStatement statement = conn.prepareStatement(sql)) {
-			setParameter(statement, 1, projectId, Integer.class);
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
 
-			try (ResultSet resultSet = statement.executeQuery()) {
-				List<Material> materials = new LinkedList<>();
+			try (PreparedStatement statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				statement.setFetchSize(fetchSize);
 
-				// Sets the values of the Material objects' fields using the data retrieved from the
-				// result set. It adds the objects to the materials list.
-				while (resultSet.next()) {
-					materials.add(extract(resultSet, Material.class));
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					long rows = 0;
+
+					while (resultSet.next()) {
+						// @formatter:off
+						action.accept(new ProjectCost(
+								resultSet.getInt(1),
+								resultSet.getString(2),
+								getHundredths(resultSet, 3),
+								getHundredths(resultSet, 4),
+								resultSet.getInt(5),
+								resultSet.getLong(6)));
+						// @formatter:on
+						rows++;
+					}
+
+					timer.success(rows);
 				}
 
-				return materials;
+				commitTransaction(conn);
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				throw new DbException(e);
 			}
+		} catch (SQLException e) {
+			throw new DbException(e);
 		}
 	}
 
-	//Updates a project's data in the project table
-	public boolean modifyProjectDetails(Project project) {
+	// Reads a column of hundredths. A NULL is returned as FixedPoint.NULL.
+	private long getHundredths(ResultSet resultSet, int column) throws SQLException {
+		long hundredths = resultSet.getLong(column);
+		return resultSet.wasNull() ? FixedPoint.NULL : hundredths;
+	}
+
+	/*
+	 * Fetches only the given columns of the materials for a project, or of all materials if projectId is null. The fields of the
+	 * Material objects that are not in the column list are left null. The column names are checked against the Material fields.
+	 */
+	public List<Material> fetchMaterialColumns(Integer projectId, List<String> columns) {
+		return fetchColumns(MATERIAL_TABLE, "material_id", Material.class, projectId, columns);
+	}
+
+	/*
+	 * Fetches only the given columns of the steps for a project, or of all steps if projectId is null. The fields of the Step
+	 * objects that are not in the column list are left null. The column names are checked against the Step fields.
+	 */
+	public List<Step> fetchStepColumns(Integer projectId, List<String> columns) {
+		return fetchColumns(STEP_TABLE, "step_id", Step.class, projectId, columns);
+	}
+
+	// Fetches a subset of the columns of a child table, optionally limited to one project, in primary key order
+	private <T> List<T> fetchColumns(String table, String keyColumn, Class<T> classType, Integer projectId,
+			List<String> columns) {
+		List<String> allowed = columnNames(classType);
+
+		if (columns.isEmpty()) {
+			throw new DbException("At least one column must be selected from " + table + ".");
+		}
+
+		for (String column : columns) {
+			if (!allowed.contains(column)) {
+				throw new DbException("Unknown " + table + " column: " + column);
+			}
+		}
+
 		// @formatter:off
-		String sql = "UPDATE " + PROJECT_TABLE + " SET "
-				+ "project_name = ?, "
-				+ "estimated_hours = ?, "
-				+ "actual_hours = ?, "
-				+ "difficulty = ?, "
-				+ "notes = ? "
-				+ "WHERE project_id = ?";
+		String sql = "SELECT " + String.join(", ", columns) + " FROM " + table
+				+ (Objects.isNull(projectId) ? "" : " WHERE project_id = ?")
+				+ " ORDER BY " + keyColumn;
 		// @formatter:on
 
-		try (Connection conn = DbConnection.getConnection()) {
+		try (Connection conn = getConnection()) {
 			startTransaction(conn);
 
 			try (PreparedStatement statement = conn.prepareStatement(sql)) {
-				setParameter(statement, 1, project.getProjectName(), String.class);
-				setParameter(statement, 2, project.getEstimatedHours(), BigDecimal.class);
-				setParameter(statement, 3, project.getActualHours(), BigDecimal.class);
-				setParameter(statement, 4, project.getDifficulty(), Integer.class);
-				setParameter(statement, 5, project.getNotes(), String.class);
-				setParameter(statement, 6, project.getProjectId(), Integer.class);
+				if (Objects.nonNull(projectId)) {
+					INTEGER.bind(statement, 1, projectId);
+				}
 
-				// Returns the number of rows where data was changed after the SQL statement was
-				// executed. If it returns 1, the project was updated and the condition is true.
-				boolean updated = statement.executeUpdate() == 1;
+				List<T> rows = new ArrayList<>();
 
-				commitTransaction(conn);
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					RowMapper<T> mapper = rowMapper(resultSet, classType);
 
-				// Returns a boolean value to confirm that the project data was updated. If it was not, it
-				// returns false and an exception is thrown in the ProjectService class.
-				return updated;
+					while (resultSet.next()) {
+						rows.add(mapper.map(resultSet));
+					}
+
+					timer.success(rows.size());
+				}
+
+				commitTransaction(conn);
 
+				return rows;
 			} catch (Exception e) {
 				rollbackTransaction(conn);
 				throw new DbException(e);
 			}
-
 		} catch (SQLException e) {
 			throw new DbException(e);
 		}
 	}
 
-	//Deletes a project in the project table
-	public boolean deleteProject(int projectId) {
-		String sql = "DELETE FROM " + PROJECT_TABLE + " WHERE project_id = ?";
-
-		try (Connection conn = DbConnection.getConnection()) {
+	//Fetches the selected project from the project table using its project ID. It also fetches the project's categories, steps and materials.
+	public Optional<Project> fetchProjectById(Integer projectId) {
+		try (Connection conn = getConnection()) {
 			startTransaction(conn);
+			
+			try {
+				Project project;
 
-			try (PreparedStatement statement = conn.prepareStatement(sql)) {
-				setParameter(statement, 1, projectId, Integer.class);
+				switch (loadMode) {
+					case SINGLE_ROUND_TRIP:
+						project = fetchProjectInOneRoundTrip(conn, projectId);
+						break;
+
+					case PARALLEL:
+						project = fetchProjectInParallel(conn, projectId);
+						break;
+
+					default:
+						project = fetchProjectSequentially(conn, projectId);
+				}
+				
+				commitTransaction(conn);
+				
+				return Optional.ofNullable(project);
+
+			} catch (Exception e){
+				rollbackTransaction(conn);
+				throw new DbException(e);
+			}
+			
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	
+	}
+
+	/*
+	 * Fetches the projects with the given IDs together with their materials, steps and categories. Instead of loading each project
+	 * separately, it runs one IN (...) query per table for each chunk of IDs and attaches the child rows to their projects in memory.
+	 * The projects are returned in the order of the given IDs. IDs that don't exist are skipped.
+	 */
+	public List<Project> fetchProjectsByIds(Collection<Integer> projectIds) {
+		List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(projectIds));
+
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			try {
+				Map<Integer, Project> projects = new HashMap<>();
+
+				for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+					List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+					fetchProjectChunk(conn, chunk, projects);
+				}
+
+				commitTransaction(conn);
+
+				List<Project> result = new ArrayList<>(projects.size());
+
+				for (Integer id : ids) {
+					Project project = projects.get(id);
+
+					if (Objects.nonNull(project)) {
+						result.add(project);
+					}
+				}
+
+				return result;
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				throw new DbException(e);
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Loads one chunk of projects and their children into the projects map
+	private void fetchProjectChunk(Connection conn, List<Integer> chunk, Map<Integer, Project> projects) throws SQLException {
+		List<Integer> found = new ArrayList<>(chunk.size());
+		String sql = "SELECT * FROM " + PROJECT_TABLE + " WHERE project_id IN (" + placeholders(chunk.size()) + ")";
+
+		try (PreparedStatement statement = conn.prepareStatement(sql)) {
+			setIdParameters(statement, chunk);
+
+			try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+				RowMapper<Project> mapper = rowMapper(resultSet, Project.class);
+
+				while (resultSet.next()) {
+					Project project = mapper.map(resultSet);
+					projects.put(project.getProjectId(), project);
+					found.add(project.getProjectId());
+				}
+
+				timer.success(found.size());
+			}
+		}
+
+		// There are no children to read if none of the projects in the chunk exist
+		if (found.isEmpty()) {
+			return;
+		}
+
+		String in = placeholders(found.size());
+
+		// @formatter:off
+		String materialSql = "SELECT * FROM " + MATERIAL_TABLE
+				+ " WHERE project_id IN (" + in + ") ORDER BY project_id, material_id";
+
+		String stepSql = "SELECT * FROM " + STEP_TABLE
+				+ " WHERE project_id IN (" + in + ") ORDER BY project_id, step_order";
+
+		// @formatter:on
+
+		try (PreparedStatement statement = conn.prepareStatement(materialSql)) {
+			setIdParameters(statement, found);
+
+			try (QueryTimer timer = startTimer(materialSql, statement); ResultSet resultSet = statement.executeQuery()) {
+				RowMapper<Material> mapper = rowMapper(resultSet, Material.class);
+				long rows = 0;
+
+				while (resultSet.next()) {
+					Material material = mapper.map(resultSet);
+					projects.get(material.getProjectId()).getMaterials().add(material);
+					rows++;
+				}
+
+				timer.success(rows);
+			}
+		}
+
+		try (PreparedStatement statement = conn.prepareStatement(stepSql)) {
+			setIdParameters(statement, found);
+
+			try (QueryTimer timer = startTimer(stepSql, statement); ResultSet resultSet = statement.executeQuery()) {
+				RowMapper<Step> mapper = rowMapper(resultSet, Step.class);
+				long rows = 0;
+
+				while (resultSet.next()) {
+					Step step = mapper.map(resultSet);
+					projects.get(step.getProjectId()).getSteps().add(step);
+					rows++;
+				}
+
+				timer.success(rows);
+			}
+		}
+
+		// The category IDs of each project are resolved to the shared categories
+		for (Map.Entry<Integer, Set<Integer>> links : fetchCategoryLinks(conn, found).entrySet()) {
+			projects.get(links.getKey()).setCategories(categoryDictionary.resolve(conn, new ArrayList<>(links.getValue())));
+		}
+	}
+
+	// Fetches one page of the projects linked to a category. It is fetchProjectsInCategories() with a single category.
+	public List<ProjectSummary> fetchProjectsInCategory(Integer categoryId, Integer afterProjectId, int pageSize) {
+		return fetchProjectsInCategories(List.of(categoryId), false, afterProjectId, pageSize);
+	}
+
+	/*
+	 * Fetches one page of the projects linked to any of the categories or, if matchAll is true, to all of them. Projects are
+	 * returned in project ID order. The page starts after afterProjectId, the ID of the last project on the previous page; pass
+	 * null for the first page.
+	 *
+	 * Every read walks the (category_id, project_id) index of project_category in project ID order and stops when the page is
+	 * full, so neither form groups or sorts the category's whole range in a temporary table. For matchAll the first category
+	 * drives the walk and each other category is checked with an EXISTS lookup on the (project_id, category_id) unique key; the
+	 * walk is shortest when the rarest category (see fetchCategoryCounts()) is passed first. Otherwise each category reads at most
+	 * one page from its own range and the union of those pages is cut to one page. Only the projects on the page are then joined
+	 * to the project table for their names.
+	 */
+	public List<ProjectSummary> fetchProjectsInCategories(Collection<Integer> categoryIds, boolean matchAll,
+			Integer afterProjectId, int pageSize) {
+		checkPageSize(pageSize);
+
+		List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(categoryIds));
+
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		boolean union = !matchAll && ids.size() > 1;
+		String after = Objects.isNull(afterProjectId) ? "" : " AND pc.project_id > ?";
+		String pageIds;
+
+		if (union) {
+			// @formatter:off
+			String branch = "(SELECT pc.project_id FROM " + PROJECT_CATEGORY_TABLE + " pc WHERE pc.category_id = ?" + after
+					+ " ORDER BY pc.project_id LIMIT ?)";
+			// @formatter:on
+
+			pageIds = String.join(" UNION ", Collections.nCopies(ids.size(), branch)) + " ORDER BY project_id LIMIT ?";
+		} else {
+			StringBuilder exists = new StringBuilder();
+
+			for (int i = 1; i < ids.size(); i++) {
+				exists.append(" AND EXISTS (SELECT 1 FROM ").append(PROJECT_CATEGORY_TABLE)
+						.append(" o WHERE o.project_id = pc.project_id AND o.category_id = ?)");
+			}
+
+			// @formatter:off
+			pageIds = "SELECT pc.project_id FROM " + PROJECT_CATEGORY_TABLE + " pc WHERE pc.category_id = ?" + after + exists
+					+ " ORDER BY pc.project_id LIMIT ?";
+			// @formatter:on
+		}
+
+		String sql = "SELECT p.project_id, p.project_name FROM " + PROJECT_TABLE + " p JOIN (" + pageIds
+				+ ") page USING (project_id) ORDER BY p.project_id";
+
+		try (Connection conn = getConnection()) {
+			try (PreparedStatement statement = conn.prepareStatement(sql)) {
+				int index = 1;
+
+				if (union) {
+					for (Integer id : ids) {
+						INTEGER.bind(statement, index++, id);
+
+						if (Objects.nonNull(afterProjectId)) {
+							INTEGER.bind(statement, index++, afterProjectId);
+						}
+
+						INTEGER.bind(statement, index++, pageSize);
+					}
+				} else {
+					INTEGER.bind(statement, index++, ids.get(0));
+
+					if (Objects.nonNull(afterProjectId)) {
+						INTEGER.bind(statement, index++, afterProjectId);
+					}
+
+					for (Integer id : ids.subList(1, ids.size())) {
+						INTEGER.bind(statement, index++, id);
+					}
+				}
+
+				INTEGER.bind(statement, index, pageSize);
+
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					List<ProjectSummary> summaries = new ArrayList<>();
+
+					while (resultSet.next()) {
+						summaries.add(new ProjectSummary(resultSet.getInt(1), resultSet.getString(2)));
+					}
+
+					timer.success(summaries.size());
+					return summaries;
+				}
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	/*
+	 * Counts the projects linked to each category, in category ID order. Categories without projects have a count of zero. The
+	 * counts are read from the (category_id, project_id) index.
+	 */
+	public List<CategoryCount> fetchCategoryCounts() {
+		try (Connection conn = getConnection()) {
+			List<Integer> categoryIds = new ArrayList<>();
+			List<Long> counts = new ArrayList<>();
+
+			try (PreparedStatement statement = conn.prepareStatement(CATEGORY_COUNTS_SQL);
+					QueryTimer timer = startTimer(CATEGORY_COUNTS_SQL, statement);
+					ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					categoryIds.add(resultSet.getInt(1));
+					counts.add(resultSet.getLong(2));
+				}
+
+				timer.success(categoryIds.size());
+			}
+
+			List<ReadOnlyCategory> categories = categoryDictionary.resolve(conn, categoryIds);
+			List<CategoryCount> categoryCounts = new ArrayList<>(categories.size());
+
+			for (int index = 0; index < categories.size(); index++) {
+				categoryCounts.add(new CategoryCount(categories.get(index), counts.get(index)));
+			}
+
+			return categoryCounts;
+
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	/*
+	 * Links each project in the map to the given categories, keeping the categories it already has. Only the missing links are
+	 * inserted. The changes for every project are made in one transaction, batchSize links per statement.
+	 */
+	public CategoryLinkChanges addProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds, int batchSize) {
+		return changeProjectCategories(categoryIds, batchSize, true, false);
+	}
+
+	// Unlinks each project in the map from the given categories. Categories the project isn't linked to are ignored.
+	public CategoryLinkChanges removeProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds, int batchSize) {
+		return changeProjectCategories(categoryIds, batchSize, false, true);
+	}
+
+	/*
+	 * Makes the given categories the complete category set of each project in the map. Links that are missing are inserted and
+	 * links to categories that aren't in the set are deleted. An empty set removes all of a project's categories.
+	 */
+	public CategoryLinkChanges replaceProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds, int batchSize) {
+		return changeProjectCategories(categoryIds, batchSize, true, true);
+	}
+
+	/*
+	 * Reads the existing links of the projects, works out which links to insert and which to delete, and applies the difference in
+	 * one transaction. Inserts are batched INSERT IGNOREs, which rewriteBatchedStatements sends as multi-row INSERTs. Deletes are
+	 * multi-row DELETEs that match (project_id, category_id) pairs through the unique key. Links are written in (project, category)
+	 * order so concurrent changes lock rows in the same order. The version of every project whose links changed is incremented in
+	 * the same transaction, so the version identifies the state of the whole project (see fetchProjectInParallel()).
+	 *
+	 * INSERT IGNORE also skips links to a project or category that doesn't exist, so the caller should pass existing IDs.
+	 */
+	private CategoryLinkChanges changeProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds,
+			int batchSize, boolean add, boolean remove) {
+		if (batchSize < 1) {
+			throw new DbException("Batch size must be at least 1.");
+		}
+
+		Map<Integer, Set<Integer>> requested = new TreeMap<>();
+
+		categoryIds.forEach((projectId, ids) -> requested.put(projectId, new TreeSet<>(ids)));
+
+		if (requested.isEmpty()) {
+			return new CategoryLinkChanges(0, 0, 0);
+		}
+
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			try {
+				Map<Integer, Set<Integer>> existing = fetchCategoryLinks(conn, new ArrayList<>(requested.keySet()));
+				List<int[]> inserts = new ArrayList<>();
+				List<int[]> deletes = new ArrayList<>();
+
+				for (Map.Entry<Integer, Set<Integer>> entry : requested.entrySet()) {
+					Integer projectId = entry.getKey();
+					Set<Integer> current = existing.getOrDefault(projectId, Collections.emptySet());
+
+					for (Integer categoryId : entry.getValue()) {
+						if (add && !current.contains(categoryId)) {
+							inserts.add(new int[] { projectId, categoryId });
+						} else if (!add && remove && current.contains(categoryId)) {
+							deletes.add(new int[] { projectId, categoryId });
+						}
+					}
+
+					// When the set is replaced, every current link that isn't requested is removed
+					if (add && remove) {
+						for (Integer categoryId : current) {
+							if (!entry.getValue().contains(categoryId)) {
+								deletes.add(new int[] { projectId, categoryId });
+							}
+						}
+					}
+				}
+
+				deleteCategoryLinks(conn, deletes, batchSize);
+				incrementVersions(conn, inserts, deletes);
+
+				try (PreparedStatement statement = conn.prepareStatement(INSERT_IGNORE_PROJECT_CATEGORY_SQL)) {
+					for (int from = 0; from < inserts.size(); from += batchSize) {
+						int to = Math.min(from + batchSize, inserts.size());
+
+						for (int[] link : inserts.subList(from, to)) {
+							INTEGER.bind(statement, 1, link[0]);
+							INTEGER.bind(statement, 2, link[1]);
+							statement.addBatch();
+						}
+
+						executeBatch(statement, INSERT_IGNORE_PROJECT_CATEGORY_SQL);
+					}
+				}
+
+				commitTransaction(conn);
+
+				return new CategoryLinkChanges(requested.size(), inserts.size(), deletes.size());
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				throw new DbException(e);
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Reads the category IDs linked to each of the projects, ID_CHUNK_SIZE projects per query
+	private Map<Integer, Set<Integer>> fetchCategoryLinks(Connection conn, List<Integer> projectIds) throws SQLException {
+		Map<Integer, Set<Integer>> links = new HashMap<>();
+
+		for (int from = 0; from < projectIds.size(); from += ID_CHUNK_SIZE) {
+			List<Integer> chunk = projectIds.subList(from, Math.min(from + ID_CHUNK_SIZE, projectIds.size()));
+			String sql = "SELECT project_id, category_id FROM " + PROJECT_CATEGORY_TABLE
+					+ " WHERE project_id IN (" + placeholders(chunk.size()) + ")";
+
+			try (PreparedStatement statement = conn.prepareStatement(sql)) {
+				setIdParameters(statement, chunk);
+
+				try (QueryTimer timer = startTimer(sql, statement); ResultSet resultSet = statement.executeQuery()) {
+					long rows = 0;
+
+					while (resultSet.next()) {
+						links.computeIfAbsent(resultSet.getInt(1), id -> new TreeSet<>()).add(resultSet.getInt(2));
+						rows++;
+					}
+
+					timer.success(rows);
+				}
+			}
+		}
+
+		return links;
+	}
+
+	// Increments the version of the projects of the changed links, ID_CHUNK_SIZE projects per statement
+	private void incrementVersions(Connection conn, List<int[]> inserts, List<int[]> deletes) throws SQLException {
+		Set<Integer> changed = new TreeSet<>();
+
+		inserts.forEach(link -> changed.add(link[0]));
+		deletes.forEach(link -> changed.add(link[0]));
+
+		List<Integer> projectIds = new ArrayList<>(changed);
+
+		for (int from = 0; from < projectIds.size(); from += ID_CHUNK_SIZE) {
+			List<Integer> chunk = projectIds.subList(from, Math.min(from + ID_CHUNK_SIZE, projectIds.size()));
+			String sql = "UPDATE " + PROJECT_TABLE + " SET version = version + 1"
+					+ " WHERE project_id IN (" + placeholders(chunk.size()) + ")";
+
+			try (PreparedStatement statement = conn.prepareStatement(sql)) {
+				setIdParameters(statement, chunk);
+				executeUpdate(statement, sql);
+			}
+		}
+	}
+
+	// Deletes the (project ID, category ID) links with one DELETE per batchSize links
+	private void deleteCategoryLinks(Connection conn, List<int[]> links, int batchSize) throws SQLException {
+		for (int from = 0; from < links.size(); from += batchSize) {
+			List<int[]> batch = links.subList(from, Math.min(from + batchSize, links.size()));
+			String sql = "DELETE FROM " + PROJECT_CATEGORY_TABLE + " WHERE (project_id, category_id) IN ("
+					+ String.join(", ", Collections.nCopies(batch.size(), "(?, ?)")) + ")";
+
+			try (PreparedStatement statement = conn.prepareStatement(sql)) {
+				int index = 1;
+
+				for (int[] link : batch) {
+					INTEGER.bind(statement, index++, link[0]);
+					INTEGER.bind(statement, index++, link[1]);
+				}
+
+				executeUpdate(statement, sql);
+			}
+		}
+	}
+
+	/*
+	 * Binds a list of IDs to the parameters of an IN (...) clause built by placeholders(), starting at the first parameter. The
+	 * last ID is repeated to fill the padding, which doesn't change which rows match. It returns the next parameter index.
+	 */
+	private int setIdParameters(PreparedStatement statement, List<Integer> ids) throws SQLException {
+		int index = 1;
+
+		for (Integer id : ids) {
+			INTEGER.bind(statement, index++, id);
+		}
+
+		for (int pad = ids.size(); pad < inListSize(ids.size()); pad++) {
+			INTEGER.bind(statement, index++, ids.get(ids.size() - 1));
+		}
+
+		return index;
+	}
+
+	/*
+	 * Returns the parameter markers of an IN (...) list for the given number of IDs. The list is padded to the next power of two
+	 * (at most ID_CHUNK_SIZE), so a handful of SQL texts cover every list size and their prepared statements can be cached.
+	 */
+	static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(inListSize(count), "?"));
+	}
+
+	static int inListSize(int count) {
+		if (count <= 1 || count > ID_CHUNK_SIZE) {
+			return count;
+		}
+
+		return Math.min(Integer.highestOneBit(count - 1) << 1, ID_CHUNK_SIZE);
+	}
+
+	// Returns the category dictionary that project loads resolve category IDs with
+	public CategoryDictionary getCategoryDictionary() {
+		return categoryDictionary;
+	}
+
+	// Returns the in-process metrics recorded by every ProjectDao that uses the default sink
+	public static InMemoryMetricsSink getDefaultMetrics() {
+		return DEFAULT_METRICS;
+	}
+
+	// Sends this DAO's statement timings, connection acquire times and commit/rollback counts to the given sink
+	public void setMetricsSink(MetricsSink metrics) {
+		this.metrics = Objects.requireNonNull(metrics);
+	}
+
+	// Returns the slow query log, or null if slow queries are not being logged
+	public SlowQueryLog getSlowQueryLog() {
+		return slowQueryLog;
+	}
+
+	// Logs the statements executed by this DAO that are slower than the log's threshold. Pass null to stop logging.
+	public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	/*
+	 * Starts timing one execution of a statement. Each DAO method opens the timer right before it executes a statement, after the
+	 * connection has been borrowed, and closes it when the statement's results have been read, so pool wait time is only recorded
+	 * as connection acquire time. The rows are counted by the loop that reads them. If there is a slow query log, it is given the
+	 * execution when the timer is closed, so the statement must still be open then.
+	 */
+	private QueryTimer startTimer(String sql, PreparedStatement statement) {
+		QueryTimer timer = metrics.start(statementName(sql));
+		SlowQueryLog log = slowQueryLog;
+
+		return Objects.isNull(log) ? timer : timer.onSuccess((elapsedNanos, rows) -> log.check(sql, statement, elapsedNanos, rows));
+	}
+
+	/*
+	 * Returns the name a statement is recorded under: its SQL on one line, with the IN (...) lists shortened so the statements that
+	 * only differ in the length of a list share one name.
+	 */
+	static String statementName(String sql) {
+		String name = STATEMENT_NAMES.get(sql);
+
+		if (Objects.isNull(name)) {
+			name = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+			name = ROW_IN_LIST.matcher(name).replaceAll("IN ($1, ...)");
+			name = IN_LIST.matcher(name).replaceAll("IN (?, ...)");
+			STATEMENT_NAMES.putIfAbsent(sql, name);
+		}
+
+		return name;
+	}
+
+	// Executes an update and records it. It returns the number of rows the update changed.
+	private int executeUpdate(PreparedStatement statement, String sql) throws SQLException {
+		try (QueryTimer timer = startTimer(sql, statement)) {
+			int rows = statement.executeUpdate();
+			timer.success(rows);
+
+			return rows;
+		}
+	}
+
+	// Executes the statement's batch and records it with the rows changed by all of its entries. It returns the update counts.
+	private int[] executeBatch(PreparedStatement statement, String sql) throws SQLException {
+		try (QueryTimer timer = startTimer(sql, statement)) {
+			int[] counts = statement.executeBatch();
+			long rows = 0;
+
+			// A rewritten batch reports SUCCESS_NO_INFO (-2) instead of a count, which adds nothing
+			for (int count : counts) {
+				rows += Math.max(0, count);
+			}
+
+			timer.success(rows);
+
+			return counts;
+		}
+	}
+
+	// Borrows a pooled connection and records how long it took to get it
+	private Connection getConnection() {
+		long start = System.nanoTime();
+		Connection conn = DbConnection.getConnection();
+		metrics.recordConnectionAcquire(System.nanoTime() - start);
+
+		return conn;
+	}
+
+	// Borrows a pooled connection only if one is free right now, and records how long it took. It returns null otherwise.
+	private Connection tryGetConnection() {
+		long start = System.nanoTime();
+		Connection conn = DbConnection.tryGetConnection();
+
+		if (Objects.nonNull(conn)) {
+			metrics.recordConnectionAcquire(System.nanoTime() - start);
+		}
+
+		return conn;
+	}
+
+	@Override
+	protected void commitTransaction(Connection conn) throws SQLException {
+		super.commitTransaction(conn);
+		metrics.recordCommit();
+	}
+
+	@Override
+	protected void rollbackTransaction(Connection conn) throws SQLException {
+		super.rollbackTransaction(conn);
+		metrics.recordRollback();
+	}
+
+	// Returns how fetchProjectById() loads a project's materials, steps and categories
+	public AggregateLoadMode getLoadMode() {
+		return loadMode;
+	}
+
+	public void setLoadMode(AggregateLoadMode loadMode) {
+		this.loadMode = Objects.requireNonNull(loadMode);
+	}
+
+	// Fetches a project and then its materials, steps and categories with four separate queries. It returns null if the project does not exist.
+	private Project fetchProjectSequentially(Connection conn, Integer projectId) throws SQLException {
+		Project project = null;
+		
+		try (PreparedStatement statement = conn.prepareStatement(PROJECT_BY_ID_SQL)) {
+			INTEGER.bind(statement, 1, projectId);
+			
+		
+			// Sets the values of the Project object's fields using the data retrieved from the result set. The result set only 
+			// contains one row with the data of the project selected by the user. 
+			try (QueryTimer timer = startTimer(PROJECT_BY_ID_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+				if (resultSet.next()) {
+					project = extract(resultSet, Project.class);
+				}
+
+				timer.success(Objects.isNull(project) ? 0 : 1);
+			}
+		}
+		
+		// Fetches the material, step, and category data of the project if the Project object is not null
+		if (Objects.nonNull(project)) {
+			fetchMaterialsForProject(conn, projectId, project.getMaterials());
+			fetchStepsForProject(conn, projectId, project.getSteps());
+			project.setCategories(fetchCategoriesForProject(conn, projectId));
+		}
+
+		return project;
+	}
+
+	/*
+	 * Fetches a project with its steps and categories read on two extra pooled connections while the project and its materials are read
+	 * on the caller's connection, so a large aggregate takes about as long as its largest child query. Each connection starts a
+	 * REPEATABLE READ transaction WITH CONSISTENT SNAPSHOT before any query runs. The three snapshots are taken back to back, not at
+	 * the same instant, so each child query also reads the project version in its snapshot. Every write to a project through this DAO
+	 * increments its version, so if a child snapshot saw a different version than the caller's snapshot, a change was committed in
+	 * between. The steps and categories are then read again on the caller's connection, whose snapshot is consistent with the
+	 * project row. If the pool can't spare two connections right now, the project is read sequentially on the caller's connection
+	 * instead of waiting. It returns null if the project does not exist.
+	 */
+	private Project fetchProjectInParallel(Connection conn, Integer projectId) throws SQLException {
+		try (Connection stepConn = tryGetConnection();
+				Connection categoryConn = Objects.isNull(stepConn) ? null : tryGetConnection()) {
+			if (Objects.isNull(categoryConn)) {
+				return fetchProjectSequentially(conn, projectId);
+			}
+
+			startSnapshot(conn);
+			startSnapshot(stepConn);
+			startSnapshot(categoryConn);
+
+			Future<SnapshotRead<List<Step>>> steps = CHILD_FETCH_EXECUTOR.submit(() -> readInSnapshot(stepConn, projectId,
+					() -> fetchStepsForProject(stepConn, projectId, new ArrayList<>())));
+			Future<SnapshotRead<List<ReadOnlyCategory>>> categories = CHILD_FETCH_EXECUTOR.submit(() -> readInSnapshot(categoryConn, projectId,
+					() -> fetchCategoriesForProject(categoryConn, projectId)));
+
+			Project project = null;
+			SnapshotRead<List<Step>> stepRead = null;
+			SnapshotRead<List<ReadOnlyCategory>> categoryRead = null;
+			Exception failure = null;
+
+			try {
+				try (PreparedStatement statement = conn.prepareStatement(PROJECT_BY_ID_SQL)) {
+					INTEGER.bind(statement, 1, projectId);
+
+					try (QueryTimer timer = startTimer(PROJECT_BY_ID_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+						if (resultSet.next()) {
+							project = extract(resultSet, Project.class);
+						}
+
+						timer.success(Objects.isNull(project) ? 0 : 1);
+					}
+				}
+
+				if (Objects.nonNull(project)) {
+					fetchMaterialsForProject(conn, projectId, project.getMaterials());
+				}
+			} catch (SQLException | RuntimeException e) {
+				failure = e;
+			}
+
+			// Both child queries must finish before their connections are returned to the pool, even if something failed. The first
+			// failure is thrown and the others are attached to it as suppressed exceptions.
+			try {
+				stepRead = await(steps);
+			} catch (SQLException | RuntimeException e) {
+				failure = addFailure(failure, e);
+			}
+
+			try {
+				categoryRead = await(categories);
+			} catch (SQLException | RuntimeException e) {
+				failure = addFailure(failure, e);
+			}
+
+			if (failure instanceof SQLException) {
+				throw (SQLException) failure;
+			}
+
+			if (Objects.nonNull(failure)) {
+				throw (RuntimeException) failure;
+			}
+
+			commitTransaction(stepConn);
+			commitTransaction(categoryConn);
+
+			if (Objects.isNull(project)) {
+				return null;
+			}
+
+			if (stepRead.isConsistentWith(project) && categoryRead.isConsistentWith(project)) {
+				project.setSteps(stepRead.rows);
+				project.setCategories(categoryRead.rows);
+			} else {
+				project.setSteps(fetchStepsForProject(conn, projectId, new ArrayList<>(stepRead.rows.size())));
+				project.setCategories(fetchCategoriesForProject(conn, projectId));
+			}
+
+			return project;
+		}
+	}
+
+	// Reads the project version and then runs the child query, both in the connection's snapshot
+	private <T> SnapshotRead<T> readInSnapshot(Connection conn, Integer projectId, ChildQuery<T> query) throws SQLException {
+		Integer version = null;
+
+		try (PreparedStatement statement = conn.prepareStatement(PROJECT_VERSION_SQL)) {
+			INTEGER.bind(statement, 1, projectId);
+
+			try (QueryTimer timer = startTimer(PROJECT_VERSION_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+				if (resultSet.next()) {
+					version = resultSet.getInt(1);
+				}
+
+				timer.success(Objects.isNull(version) ? 0 : 1);
+			}
+		}
+
+		return new SnapshotRead<>(version, query.fetch());
+	}
+
+	// Returns the first failure, with any later one attached to it as a suppressed exception
+	private static Exception addFailure(Exception failure, Exception e) {
+		if (Objects.isNull(failure)) {
+			return e;
+		}
+
+		failure.addSuppressed(e);
+		return failure;
+	}
+
+	@FunctionalInterface
+	private interface ChildQuery<T> {
+		T fetch() throws SQLException;
+	}
+
+	// The rows a child query read and the project version it saw in the same snapshot (null if the project didn't exist)
+	private static final class SnapshotRead<T> {
+		private final Integer version;
+		private final T rows;
+
+		SnapshotRead(Integer version, T rows) {
+			this.version = version;
+			this.rows = rows;
+		}
+
+		boolean isConsistentWith(Project project) {
+			return Objects.equals(version, project.getVersion());
+		}
+	}
+
+	/*
+	 * Starts a REPEATABLE READ transaction whose snapshot is taken now rather than at the first read. The isolation level is set
+	 * through JDBC before the transaction starts, so the driver knows it, and the pool restores the connection's own level when the
+	 * connection is returned.
+	 */
+	private void startSnapshot(Connection conn) throws SQLException {
+		conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		startTransaction(conn);
+
+		try (Statement statement = conn.createStatement()) {
+			statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+		}
+	}
+
+	// Waits for a child query and rethrows its failure
+	private <T> T await(Future<T> future) throws SQLException {
+		try {
+			return future.get();
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a child query.", e);
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+
+			throw new DbException(cause);
+		}
+	}
+
+	/*
+	 * Fetches a project with its materials, steps and categories in one round trip. The four queries are sent as one multi-statement
+	 * request (the connection allows multiple queries) and the server returns the four result sets in order in a single response.
+	 * It returns null if the project does not exist.
+	 */
+	private Project fetchProjectInOneRoundTrip(Connection conn, Integer projectId) throws SQLException {
+		try (PreparedStatement statement = conn.prepareStatement(PROJECT_AGGREGATE_SQL)) {
+			for (int index = 1; index <= 4; index++) {
+				INTEGER.bind(statement, index, projectId);
+			}
+
+			Project project;
+			List<Integer> categoryIds;
+
+			// The request is recorded as one statement, with the rows of all four result sets
+			try (QueryTimer timer = startTimer(PROJECT_AGGREGATE_SQL, statement)) {
+				statement.execute();
+
+				try (ResultSet resultSet = statement.getResultSet()) {
+					if (!resultSet.next()) {
+						timer.success(0);
+						return null;
+					}
+
+					project = extract(resultSet, Project.class);
+				}
+
+				// Each call to getMoreResults() closes the previous result set and moves to the next one
+				readChildResults(statement, Material.class, project.getMaterials());
+				readChildResults(statement, Step.class, project.getSteps());
+
+				if (!statement.getMoreResults()) {
+					throw new SQLException("Expected a result set of category IDs.");
+				}
+
+				try (ResultSet resultSet = statement.getResultSet()) {
+					categoryIds = readCategoryIds(resultSet);
+				}
+
+				timer.success(1 + project.getMaterials().size() + project.getSteps().size() + categoryIds.size());
+			}
+
+			project.setCategories(categoryDictionary.resolve(conn, categoryIds));
+
+			return project;
+		}
+	}
+
+	// Moves to the next result set of a multi-statement request and adds its rows to the given list
+	private <T> void readChildResults(PreparedStatement statement, Class<T> classType, List<T> children) throws SQLException {
+		if (!statement.getMoreResults()) {
+			throw new SQLException("Expected a result set of " + classType.getSimpleName() + " rows.");
+		}
+
+		try (ResultSet resultSet = statement.getResultSet()) {
+			RowMapper<T> mapper = rowMapper(resultSet, classType);
+
+			while (resultSet.next()) {
+				children.add(mapper.map(resultSet));
+			}
+		}
+	}
+
+	// Fetches the category IDs of a project from the project category table and resolves them to the shared categories
+	private List<ReadOnlyCategory> fetchCategoriesForProject(Connection conn, Integer projectId) throws SQLException {
+		List<Integer> categoryIds;
+
+		try (PreparedStatement statement = conn.prepareStatement(CATEGORIES_FOR_PROJECT_SQL)) {
+			INTEGER.bind(statement, 1, projectId);
+
+			try (QueryTimer timer = startTimer(CATEGORIES_FOR_PROJECT_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+				categoryIds = readCategoryIds(resultSet);
+				timer.success(categoryIds.size());
+			}
+		}
+
+		return categoryDictionary.resolve(conn, categoryIds);
+	}
+
+	// Reads the category IDs from a result set whose first column is category_id
+	private List<Integer> readCategoryIds(ResultSet resultSet) throws SQLException {
+		List<Integer> categoryIds = new ArrayList<>();
+
+		while (resultSet.next()) {
+			categoryIds.add(resultSet.getInt(1));
+		}
+
+		return categoryIds;
+	}
+
+	// Fetches the steps of a project from the step table and adds them to the given list, which is returned
+	private List<Step> fetchStepsForProject(Connection conn, Integer projectId, List<Step> steps) throws SQLException {
+		try (PreparedStatement statement = conn.prepareStatement(STEPS_FOR_PROJECT_SQL)) {
+			INTEGER.bind(statement, 1, projectId);
+
+			try (QueryTimer timer = startTimer(STEPS_FOR_PROJECT_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+				RowMapper<Step> mapper = rowMapper(resultSet, Step.class);
+				long rows = 0;
+
+				// Sets the values of the Step objects' fields using the data retrieved from the result
+				// set. It adds the objects to the steps list.
+				while (resultSet.next()) {
+					steps.add(mapper.map(resultSet));
+					rows++;
+				}
+
+				timer.success(rows);
+				return steps;
+			}
+		}
+	}
+
+	//Fetches the materials used for a project from the material table and adds them to the given list, which is returned
+	private List<Material> fetchMaterialsForProject(Connection conn, Integer projectId, List<Material> materials)
+			throws SQLException {
+		try (PreparedStatement statement = conn.prepareStatement(MATERIALS_FOR_PROJECT_SQL)) {
+			INTEGER.bind(statement, 1, projectId);
+
+			try (QueryTimer timer = startTimer(MATERIALS_FOR_PROJECT_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+				RowMapper<Material> mapper = rowMapper(resultSet, Material.class);
+				long rows = 0;
+
+				// Sets the values of the Material objects' fields using the data retrieved from the
+				// result set. It adds the objects to the materials list.
+				while (resultSet.next()) {
+					materials.add(mapper.map(resultSet));
+					rows++;
+				}
+
+				timer.success(rows);
+				return materials;
+			}
+		}
+	}
+
+	/*
+	 * Updates a project's data in the project table. Only the columns of the fields that were changed on the Project (its dirty
+	 * fields) are written, so an edit of one field doesn't rewrite the others or overwrite a concurrent change to them. If no field
+	 * was changed, nothing is sent to the database and true is returned.
+	 *
+	 * Every update increments the row's version. If the Project has a version, the row is only updated if it still has that
+	 * version (optimistic locking), and the Project's version is incremented to match. False is returned if the project doesn't
+	 * exist or, when a version is given, if the row has a different version; fetchProjectVersion() tells the two apart.
+	 */
+	public boolean modifyProjectDetails(Project project) {
+		List<DetailColumn<?>> changed = new ArrayList<>();
+
+		for (DetailColumn<?> column : PROJECT_DETAIL_COLUMNS) {
+			if (project.getDirtyFields().contains(column.field)) {
+				changed.add(column);
+			}
+		}
+
+		if (changed.isEmpty()) {
+			return true;
+		}
+
+		StringBuilder sql = new StringBuilder("UPDATE ").append(PROJECT_TABLE).append(" SET ");
+
+		for (DetailColumn<?> column : changed) {
+			sql.append(column.column).append(" = ?, ");
+		}
+
+		sql.append("version = version + 1 WHERE project_id = ?");
+
+		Integer version = project.getVersion();
+
+		if (Objects.nonNull(version)) {
+			sql.append(" AND version = ?");
+		}
+
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			try (PreparedStatement statement = conn.prepareStatement(sql.toString())) {
+				int parameterIndex = 1;
+
+				for (DetailColumn<?> column : changed) {
+					column.bind(statement, parameterIndex++, project);
+				}
+
+				INTEGER.bind(statement, parameterIndex++, project.getProjectId());
+
+				if (Objects.nonNull(version)) {
+					INTEGER.bind(statement, parameterIndex, version);
+				}
+
+				// Returns the number of rows where data was changed after the SQL statement was
+				// executed. If it returns 1, the project was updated and the condition is true.
+				boolean updated = executeUpdate(statement, sql.toString()) == 1;
+
+				commitTransaction(conn);
+
+				// The changes are saved, so the fields are no longer dirty and the project has the row's new version
+				if (updated) {
+					project.clearDirtyFields();
+
+					if (Objects.nonNull(version)) {
+						project.setVersion(version + 1);
+					}
+				}
+
+				// Returns a boolean value to confirm that the project data was updated. If it was not, it
+				// returns false and an exception is thrown in the ProjectService class.
+				return updated;
+
+			} catch (Exception e) {
+				rollbackTransaction(conn);
+				throw new DbException(e);
+			}
+
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	// Returns the current version of a project's row, or an empty Optional if the project doesn't exist
+	public Optional<Integer> fetchProjectVersion(Integer projectId) {
+		try (Connection conn = getConnection()) {
+			try (PreparedStatement statement = conn.prepareStatement(PROJECT_VERSION_SQL)) {
+				INTEGER.bind(statement, 1, projectId);
+
+				try (QueryTimer timer = startTimer(PROJECT_VERSION_SQL, statement); ResultSet resultSet = statement.executeQuery()) {
+					Optional<Integer> version = resultSet.next() ? Optional.of(resultSet.getInt(1)) : Optional.empty();
+					timer.success(version.isPresent() ? 1 : 0);
+
+					return version;
+				}
+			}
+		} catch (SQLException e) {
+			throw new DbException(e);
+		}
+	}
+
+	//Deletes a project in the project table
+	public boolean deleteProject(int projectId) {
+		try (Connection conn = getConnection()) {
+			startTransaction(conn);
+
+			try (PreparedStatement statement = conn.prepareStatement(DELETE_PROJECT_SQL)) {
+				INTEGER.bind(statement, 1, projectId);
 
 				// Returns the number of rows where data was changed after the SQL statement was
 				// executed. If it returns 1, the project was deleted and the condition is true.
-				boolean deleted = statement.executeUpdate() == 1;
+				boolean deleted = executeUpdate(statement, DELETE_PROJECT_SQL) == 1;
 
 				commitTransaction(conn);
 				
@@ -0,0 +1,64 @@
+package projects.dao;
+
+import java.time.Instant;
+import java.util.List;
+
+/*
+ * One statement recorded by the SlowQueryLog: the SQL, its bound parameters (after redaction), how long it took, how many rows it
+ * returned or affected and, if plans are captured, the rows of EXPLAIN for the statement.
+ */
+
+public class SlowQuery {
+	private final Instant time;
+	private final String sql;
+	private final List<String> parameters;
+	private final long elapsedNanos;
+	private final long rows;
+	private final List<String> plan;
+
+	SlowQuery(Instant time, String sql, List<String> parameters, long elapsedNanos, long rows, List<String> plan) {
+		this.time = time;
+		this.sql = sql;
+		this.parameters = parameters;
+		this.elapsedNanos = elapsedNanos;
+		this.rows = rows;
+		this.plan = plan;
+	}
+
+	public Instant getTime() {
+		return time;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	// The bound parameter values in parameter order. Redacted values are replaced by a placeholder.
+	public List<String> getParameters() {
+		return parameters;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	// The EXPLAIN output, one string per row, or an empty list if the plan was not captured
+	public List<String> getPlan() {
+		return plan;
+	}
+
+	@Override
+	public String toString() {
+		String result = String.format("%.3fms, rows=%d: %s %s", elapsedNanos / 1_000_000.0, rows, sql, parameters);
+
+		for (String row : plan) {
+			result += "\n   " + row;
+		}
+
+		return result;
+	}
+}
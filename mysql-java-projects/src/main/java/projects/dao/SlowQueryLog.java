@@ -0,0 +1,222 @@
+package projects.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.mysql.cj.jdbc.JdbcPreparedStatement;
+import com.mysql.cj.jdbc.ParameterBindings;
+
+/*
+ * Records the statements that take longer than a threshold. It doesn't time statements itself: ProjectDao passes it every statement
+ * execution that succeeded, with the time and row count its QueryTimer measured from the moment the statement was executed until its
+ * results had been read. If the time is over the threshold, the SQL, the bound parameters, the elapsed time and the row count are
+ * logged and kept in a bounded list of recent slow queries. The parameters are only read from the statement when it was slow. Optionally EXPLAIN is run for the statement and its output is kept with the entry. EXPLAIN runs in the background on
+ * another pooled connection, so it neither delays the caller nor runs inside the caller's transaction. The entry is recorded when
+ * the plan is ready; if no connection is free or too many plans are waiting, it is recorded without one.
+ *
+ * Parameter values can contain user data, so they are redacted before they are logged. By default string values are replaced by
+ * their length.
+ */
+
+public class SlowQueryLog {
+	private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+
+	// The most slow queries that can wait for their plan. Past this, entries are recorded without a plan.
+	private static final int MAX_PENDING_PLANS = 100;
+
+	// Controls which bound parameter values are written to the log
+	public enum Redaction {
+		// Every value is logged as is
+		NONE,
+
+		// String values are replaced by their length. Numbers and other values are logged.
+		STRINGS,
+
+		// Every value is replaced by its type
+		ALL
+	}
+
+	private final long thresholdNanos;
+	private final boolean capturePlans;
+	private final Redaction redaction;
+	private final int maxEntries;
+	private final Deque<SlowQuery> entries = new ArrayDeque<>();
+	private ExecutorService planExecutor;
+
+	public SlowQueryLog(long thresholdMillis, boolean capturePlans, Redaction redaction, int maxEntries) {
+		if (thresholdMillis < 0 || maxEntries < 1) {
+			throw new IllegalArgumentException("Invalid slow query log settings.");
+		}
+
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		this.capturePlans = capturePlans;
+		this.redaction = Objects.requireNonNull(redaction);
+		this.maxEntries = maxEntries;
+	}
+
+	// Returns the most recent slow queries, oldest first
+	public synchronized List<SlowQuery> getEntries() {
+		return new ArrayList<>(entries);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/*
+	 * Records a statement execution that succeeded if it took at least the threshold. The statement must still be open, since its
+	 * bound parameters are read from it.
+	 */
+	void check(String sql, PreparedStatement statement, long elapsedNanos, long rows) {
+		if (elapsedNanos < thresholdNanos) {
+			return;
+		}
+
+		Instant time = Instant.now();
+		Map<Integer, Object> parameters = readParameters(sql, statement);
+		List<String> values = redact(parameters);
+
+		if (!capturePlans) {
+			add(new SlowQuery(time, sql, values, elapsedNanos, rows, List.of()));
+			return;
+		}
+
+		try {
+			getPlanExecutor().execute(() -> add(new SlowQuery(time, sql, values, elapsedNanos, rows, explain(sql, parameters))));
+		} catch (RejectedExecutionException e) {
+			add(new SlowQuery(time, sql, values, elapsedNanos, rows, List.of()));
+		}
+	}
+
+	private void add(SlowQuery query) {
+		synchronized (this) {
+			if (entries.size() == maxEntries) {
+				entries.removeFirst();
+			}
+
+			entries.addLast(query);
+		}
+
+		LOG.log(Level.WARNING, "Slow query: {0}", query);
+	}
+
+	/*
+	 * Runs EXPLAIN for a single statement with the same parameters on a pooled connection of its own, if one is free. A
+	 * multi-statement request cannot be explained as a whole, and a failure to explain is logged but does not affect the caller.
+	 */
+	private List<String> explain(String sql, Map<Integer, Object> parameters) {
+		List<String> plan = new ArrayList<>();
+
+		if (sql.contains(";")) {
+			return plan;
+		}
+
+		try (Connection conn = DbConnection.tryGetConnection()) {
+			if (Objects.isNull(conn)) {
+				return plan;
+			}
+
+			try (PreparedStatement statement = conn.prepareStatement("EXPLAIN " + sql)) {
+				for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+					statement.setObject(parameter.getKey(), parameter.getValue());
+				}
+
+				try (ResultSet resultSet = statement.executeQuery()) {
+					ResultSetMetaData metaData = resultSet.getMetaData();
+
+					while (resultSet.next()) {
+						StringBuilder row = new StringBuilder();
+
+						for (int col = 1; col <= metaData.getColumnCount(); col++) {
+							row.append(col == 1 ? "" : ", ").append(metaData.getColumnLabel(col)).append('=')
+									.append(resultSet.getObject(col));
+						}
+
+						plan.add(row.toString());
+					}
+				}
+			}
+		} catch (SQLException | RuntimeException e) {
+			LOG.log(Level.FINE, "Unable to explain " + sql, e);
+		}
+
+		return plan;
+	}
+
+	// The thread that runs EXPLAIN for slow queries. It is a daemon, so it doesn't keep the application running.
+	private synchronized ExecutorService getPlanExecutor() {
+		if (Objects.isNull(planExecutor)) {
+			planExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_PENDING_PLANS),
+					runnable -> {
+						Thread thread = new Thread(runnable, "slow-query-explain");
+						thread.setDaemon(true);
+						return thread;
+					});
+		}
+
+		return planExecutor;
+	}
+
+	private List<String> redact(Map<Integer, Object> parameters) {
+		List<String> values = new ArrayList<>(parameters.size());
+
+		for (Object value : parameters.values()) {
+			if (Objects.isNull(value)) {
+				values.add("null");
+			} else if (redaction == Redaction.ALL) {
+				values.add("<" + value.getClass().getSimpleName() + ">");
+			} else if (redaction == Redaction.STRINGS && value instanceof String) {
+				values.add("<String(" + ((String) value).length() + ")>");
+			} else {
+				values.add(value instanceof String ? "'" + value + "'" : value.toString());
+			}
+		}
+
+		return values;
+	}
+
+	/*
+	 * Reads the parameters bound to a statement, by index. The DAO's SQL has no question marks outside its parameter markers, so the
+	 * markers are counted in the SQL. The values are read through the driver's ParameterBindings, which the MySQL statements expose.
+	 * A statement that doesn't expose them, or whose parameters were cleared (as after a batch), has no parameters recorded.
+	 */
+	private static Map<Integer, Object> readParameters(String sql, PreparedStatement statement) {
+		Map<Integer, Object> parameters = new TreeMap<>();
+
+		try {
+			if (!statement.isWrapperFor(JdbcPreparedStatement.class)) {
+				return parameters;
+			}
+
+			ParameterBindings bindings = statement.unwrap(JdbcPreparedStatement.class).getParameterBindings();
+			int count = (int) sql.chars().filter(ch -> ch == '?').count();
+
+			for (int index = 1; index <= count; index++) {
+				parameters.put(index, bindings.isNull(index) ? null : bindings.getObject(index));
+			}
+		} catch (SQLException | RuntimeException e) {
+			LOG.log(Level.FINE, "Unable to read the parameters of " + sql, e);
+			parameters.clear();
+		}
+
+		return parameters;
+	}
+}
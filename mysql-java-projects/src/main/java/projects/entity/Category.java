@@ -3,14 +3,18 @@
  */
 package projects.entity;
 
+import provided.util.MappedEntity;
+
 /**
  * @author Promineo
  *
  */
-public class Category {
+@MappedEntity
+public class Category implements ReadOnlyCategory {
   private Integer categoryId;
   private String categoryName;
 
+  @Override
   public Integer getCategoryId() {
     return categoryId;
   }
@@ -19,6 +23,7 @@ public class Category {
     this.categoryId = categoryId;
   }
 
+  @Override
   public String getCategoryName() {
     return categoryName;
   }
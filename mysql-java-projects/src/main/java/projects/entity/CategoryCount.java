@@ -0,0 +1,33 @@
+/**
+ * 
+ */
+package projects.entity;
+
+/**
+ * A category and the number of projects linked to it.
+ * 
+ * @author Promineo
+ *
+ */
+public class CategoryCount {
+  private final ReadOnlyCategory category;
+  private final long projectCount;
+
+  public CategoryCount(ReadOnlyCategory category, long projectCount) {
+    this.category = category;
+    this.projectCount = projectCount;
+  }
+
+  public ReadOnlyCategory getCategory() {
+    return category;
+  }
+
+  public long getProjectCount() {
+    return projectCount;
+  }
+
+  @Override
+  public String toString() {
+    return category + ", projectCount=" + projectCount;
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * 
+ */
+package projects.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Adds up the hours and material cost of many projects. The sums are kept in hundredths, so adding
+ * a project doesn't allocate. A project whose hours are unknown adds nothing to that sum.
+ * 
+ * @author Promineo
+ *
+ */
+public class CostTotals {
+  private long projectCount;
+  private long estimatedHours;
+  private long actualHours;
+  private long materialCount;
+  private long materialCost;
+
+  /**
+   * Adds a project to the totals.
+   * 
+   * @throws ArithmeticException Thrown if a sum overflows.
+   */
+  public void add(ProjectCost cost) {
+    projectCount++;
+    estimatedHours = FixedPoint.add(estimatedHours, cost.getEstimatedHoursHundredths());
+    actualHours = FixedPoint.add(actualHours, cost.getActualHoursHundredths());
+    materialCount += cost.getMaterialCount();
+    materialCost = FixedPoint.add(materialCost, cost.getMaterialCostCents());
+  }
+
+  public long getProjectCount() {
+    return projectCount;
+  }
+
+  public BigDecimal getEstimatedHours() {
+    return FixedPoint.toBigDecimal(estimatedHours);
+  }
+
+  public BigDecimal getActualHours() {
+    return FixedPoint.toBigDecimal(actualHours);
+  }
+
+  public long getMaterialCount() {
+    return materialCount;
+  }
+
+  public BigDecimal getMaterialCost() {
+    return FixedPoint.toBigDecimal(materialCost);
+  }
+
+  @Override
+  public String toString() {
+    return "projectCount=" + projectCount + ", estimatedHours=" + getEstimatedHours()
+        + ", actualHours=" + getActualHours() + ", materialCount=" + materialCount
+        + ", materialCost=" + getMaterialCost();
+  }
+}
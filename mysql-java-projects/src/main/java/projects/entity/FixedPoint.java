@@ -0,0 +1,55 @@
+/**
+ * 
+ */
+package projects.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Helpers for DECIMAL(7, 2) hours and cost values held as whole numbers of hundredths in a long. A
+ * long holds the value without allocating, and sums of longs don't create BigDecimal or BigInteger
+ * objects. The database does the scaling (see ProjectDao.forEachProjectCost()), so only the
+ * conversion back to a decimal is needed here, and it is exact.
+ * 
+ * Only the cost rollups ({@link ProjectCost} and {@link CostTotals}) use this form. Project and
+ * Material, and the project cache that holds them, keep their BigDecimal fields.
+ * 
+ * @author Promineo
+ *
+ */
+public final class FixedPoint {
+  /** The number of decimal places of a fixed-point value. */
+  public static final int SCALE = 2;
+
+  /** Stands for a SQL NULL, since a long can't be null. */
+  public static final long NULL = Long.MIN_VALUE;
+
+  private FixedPoint() {}
+
+  /**
+   * Converts hundredths to a decimal with a scale of two.
+   * 
+   * @param hundredths The value in hundredths, or {@link #NULL}.
+   * @return The decimal, or null if the value is {@link #NULL}.
+   */
+  public static BigDecimal toBigDecimal(long hundredths) {
+    return hundredths == NULL ? null : BigDecimal.valueOf(hundredths, SCALE);
+  }
+
+  public static boolean isNull(long hundredths) {
+    return hundredths == NULL;
+  }
+
+  /**
+   * Adds a value to a sum the way SQL SUM does: a {@link #NULL} value is skipped.
+   * 
+   * @throws ArithmeticException Thrown if the sum overflows.
+   */
+  public static long add(long sum, long hundredths) {
+    return hundredths == NULL ? sum : Math.addExact(sum, hundredths);
+  }
+
+  public static String toString(long hundredths) {
+    return String.valueOf(toBigDecimal(hundredths));
+  }
+}
@@ -4,11 +4,13 @@
 package projects.entity;
 
 import java.math.BigDecimal;
+import provided.util.MappedEntity;
 
 /**
  * @author Promineo
  *
  */
+@MappedEntity
 public class Material {
   private Integer materialId;
   private Integer projectId;
@@ -56,6 +58,21 @@ public class Material {
     this.cost = cost;
   }
 
+  /**
+   * Returns a new material with the same values.
+   */
+  public Material copy() {
+    Material copy = new Material();
+
+    copy.materialId = materialId;
+    copy.projectId = projectId;
+    copy.materialName = materialName;
+    copy.numRequired = numRequired;
+    copy.cost = cost;
+
+    return copy;
+  }
+
   @Override
   public String toString() {
     return "ID=" + materialId + ", materialName=" + materialName + ", numRequired=" + numRequired
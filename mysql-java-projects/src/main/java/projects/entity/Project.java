@@ -4,13 +4,19 @@
 package projects.entity;
 
 import java.math.BigDecimal;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import provided.util.MappedEntity;
 
 /**
  * @author Promineo
  *
  */
+@MappedEntity(afterLoad = "clearDirtyFields")
 public class Project {
   private Integer projectId;
   private String projectName;
@@ -18,10 +24,21 @@ public class Project {
   private BigDecimal actualHours;
   private Integer difficulty;
   private String notes;
-
-  private List<Material> materials = new LinkedList<>();
-  private List<Step> steps = new LinkedList<>();
-  private List<Category> categories = new LinkedList<>();
+  private Integer version;
+
+  /*
+   * The child lists are array-backed, so loading a project doesn't allocate a node per child. The
+   * DAO adds the children to them as it reads the rows.
+   */
+  private List<Material> materials = new ArrayList<>();
+  private List<Step> steps = new ArrayList<>();
+  private List<ReadOnlyCategory> categories = new ArrayList<>();
+
+  /*
+   * The names of the fields that have been changed with a setter since the project was created,
+   * copied or last saved. Projects read from the database start with no dirty fields.
+   */
+  private final transient Set<String> dirtyFields = new LinkedHashSet<>();
 
   public Integer getProjectId() {
     return projectId;
@@ -36,6 +53,7 @@ public class Project {
   }
 
   public void setProjectName(String projectName) {
+    markDirty("projectName", this.projectName, projectName);
     this.projectName = projectName;
   }
 
@@ -44,6 +62,7 @@ public class Project {
   }
 
   public void setEstimatedHours(BigDecimal estimatedHours) {
+    markDirty("estimatedHours", this.estimatedHours, estimatedHours);
     this.estimatedHours = estimatedHours;
   }
 
@@ -52,6 +71,7 @@ public class Project {
   }
 
   public void setActualHours(BigDecimal actualHours) {
+    markDirty("actualHours", this.actualHours, actualHours);
     this.actualHours = actualHours;
   }
 
@@ -60,6 +80,7 @@ public class Project {
   }
 
   public void setDifficulty(Integer difficulty) {
+    markDirty("difficulty", this.difficulty, difficulty);
     this.difficulty = difficulty;
   }
 
@@ -68,6 +89,7 @@ public class Project {
   }
 
   public void setNotes(String notes) {
+    markDirty("notes", this.notes, notes);
     this.notes = notes;
   }
 
@@ -75,14 +97,106 @@ public class Project {
     return materials;
   }
 
+  /**
+   * Replaces the materials list. The given list is kept, not copied.
+   */
+  public void setMaterials(List<Material> materials) {
+    this.materials = Objects.requireNonNull(materials);
+  }
+
   public List<Step> getSteps() {
     return steps;
   }
 
-  public List<Category> getCategories() {
+  /**
+   * Replaces the steps list. The given list is kept, not copied.
+   */
+  public void setSteps(List<Step> steps) {
+    this.steps = Objects.requireNonNull(steps);
+  }
+
+  public List<ReadOnlyCategory> getCategories() {
     return categories;
   }
 
+  /**
+   * Replaces the categories list. The given list is kept, not copied.
+   */
+  public void setCategories(List<ReadOnlyCategory> categories) {
+    this.categories = Objects.requireNonNull(categories);
+  }
+
+  /**
+   * Returns the version of the row this project was read from, or null if the version isn't known.
+   * When it is set, an update of the project only succeeds if the row still has this version.
+   */
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+  /**
+   * Returns the names of the fields whose values were changed since the project was created, copied
+   * or last saved. Setting a field to the value it already has does not make it dirty.
+   */
+  public Set<String> getDirtyFields() {
+    return Collections.unmodifiableSet(dirtyFields);
+  }
+
+  public void clearDirtyFields() {
+    dirtyFields.clear();
+  }
+
+  /**
+   * Returns a new project with the same ID, version and details (not the materials, steps or categories) and
+   * no dirty fields. Changing the copy's details marks only the changed fields as dirty.
+   */
+  public Project copyDetails() {
+    Project copy = new Project();
+
+    copy.projectId = projectId;
+    copy.projectName = projectName;
+    copy.estimatedHours = estimatedHours;
+    copy.actualHours = actualHours;
+    copy.difficulty = difficulty;
+    copy.notes = notes;
+    copy.version = version;
+
+    return copy;
+  }
+
+  /**
+   * Returns a new project with the same ID, version, details and children and no dirty fields. The
+   * materials and steps are copied too, so changing the copy doesn't change this project. The
+   * category objects are shared.
+   */
+  public Project copy() {
+    Project copy = copyDetails();
+
+    copy.materials = new ArrayList<>(materials.size());
+    copy.steps = new ArrayList<>(steps.size());
+    copy.categories = new ArrayList<>(categories);
+
+    for(Material material : materials) {
+      copy.materials.add(material.copy());
+    }
+
+    for(Step step : steps) {
+      copy.steps.add(step.copy());
+    }
+
+    return copy;
+  }
+
+  private void markDirty(String field, Object oldValue, Object newValue) {
+    if(!Objects.equals(oldValue, newValue)) {
+      dirtyFields.add(field);
+    }
+  }
+
   @Override
   public String toString() {
     String result = "";
@@ -93,6 +207,7 @@ public class Project {
     result += "\n   actualHours=" + actualHours;
     result += "\n   difficulty=" + difficulty;
     result += "\n   notes=" + notes;
+    result += "\n   version=" + version;
     
     result += "\n   Materials:";
     
@@ -108,7 +223,7 @@ public class Project {
     
     result += "\n   Categories:";
     
-    for(Category category : categories) {
+    for(ReadOnlyCategory category : categories) {
       result += "\n      " + category;
     }
     
@@ -0,0 +1,82 @@
+/**
+ * 
+ */
+package projects.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * The hours and material cost of a project in fixed-point form. The values are held as whole
+ * hundredths (see {@link FixedPoint}), so a large list of these holds no BigDecimal objects. The
+ * BigDecimal getters convert exactly when a value is needed.
+ * 
+ * @author Promineo
+ *
+ */
+public class ProjectCost {
+  private final int projectId;
+  private final String projectName;
+  private final long estimatedHours;
+  private final long actualHours;
+  private final int materialCount;
+  private final long materialCost;
+
+  /**
+   * @param estimatedHours The estimated hours in hundredths, or {@link FixedPoint#NULL}.
+   * @param actualHours The actual hours in hundredths, or {@link FixedPoint#NULL}.
+   * @param materialCost The total cost (cost times number required) of the project's materials in
+   *        cents.
+   */
+  public ProjectCost(int projectId, String projectName, long estimatedHours, long actualHours,
+      int materialCount, long materialCost) {
+    this.projectId = projectId;
+    this.projectName = projectName;
+    this.estimatedHours = estimatedHours;
+    this.actualHours = actualHours;
+    this.materialCount = materialCount;
+    this.materialCost = materialCost;
+  }
+
+  public int getProjectId() {
+    return projectId;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public long getEstimatedHoursHundredths() {
+    return estimatedHours;
+  }
+
+  public BigDecimal getEstimatedHours() {
+    return FixedPoint.toBigDecimal(estimatedHours);
+  }
+
+  public long getActualHoursHundredths() {
+    return actualHours;
+  }
+
+  public BigDecimal getActualHours() {
+    return FixedPoint.toBigDecimal(actualHours);
+  }
+
+  public int getMaterialCount() {
+    return materialCount;
+  }
+
+  public long getMaterialCostCents() {
+    return materialCost;
+  }
+
+  public BigDecimal getMaterialCost() {
+    return FixedPoint.toBigDecimal(materialCost);
+  }
+
+  @Override
+  public String toString() {
+    return "ID=" + projectId + ", projectName=" + projectName + ", estimatedHours="
+        + FixedPoint.toString(estimatedHours) + ", actualHours=" + FixedPoint.toString(actualHours)
+        + ", materialCount=" + materialCount + ", materialCost=" + FixedPoint.toString(materialCost);
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * 
+ */
+package projects.entity;
+
+/**
+ * The ID and name of a project. It is used for project listings, which don't need the rest of the
+ * project columns (notes in particular can be large).
+ * 
+ * @author Promineo
+ *
+ */
+public class ProjectSummary {
+  private final Integer projectId;
+  private final String projectName;
+
+  public ProjectSummary(Integer projectId, String projectName) {
+    this.projectId = projectId;
+    this.projectName = projectName;
+  }
+
+  public Integer getProjectId() {
+    return projectId;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  @Override
+  public String toString() {
+    return "ID=" + projectId + ", projectName=" + projectName;
+  }
+}
@@ -0,0 +1,19 @@
+/**
+ * 
+ */
+package projects.entity;
+
+/**
+ * The read-only view of a category that a {@link Project} holds. Projects loaded from the database
+ * share one immutable instance per category (see projects.dao.CategoryDictionary), so their
+ * categories have no setters. A new project can be given {@link Category} objects, which only their
+ * IDs are read from when the project is inserted.
+ * 
+ * @author Promineo
+ *
+ */
+public interface ReadOnlyCategory {
+  Integer getCategoryId();
+
+  String getCategoryName();
+}
@@ -3,10 +3,13 @@
  */
 package projects.entity;
 
+import provided.util.MappedEntity;
+
 /**
  * @author Promineo
  *
  */
+@MappedEntity
 public class Step {
   private Integer stepId;
   private Integer projectId;
@@ -45,6 +48,20 @@ public class Step {
     this.stepOrder = stepOrder;
   }
 
+  /**
+   * Returns a new step with the same values.
+   */
+  public Step copy() {
+    Step copy = new Step();
+
+    copy.stepId = stepId;
+    copy.projectId = projectId;
+    copy.stepText = stepText;
+    copy.stepOrder = stepOrder;
+
+    return copy;
+  }
+
   @Override
   public String toString() {
     return "ID=" + stepId + ", stepText=" + stepText;
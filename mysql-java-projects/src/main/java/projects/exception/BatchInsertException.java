@@ -0,0 +1,30 @@
+package projects.exception;
+
+/*
+ * Thrown when a batch insert fails part way. The projects are inserted in groups that are committed one at a time, in list order,
+ * so the first committedCount projects were saved and keep their IDs. The group that failed was rolled back and its IDs were
+ * cleared, and the projects after it were not attempted. The caller can retry with the projects from committedCount on.
+ */
+
+@SuppressWarnings("serial")
+public class BatchInsertException extends DbException {
+	private final int committedCount;
+	private final int totalCount;
+
+	public BatchInsertException(int committedCount, int totalCount, Throwable cause) {
+		super("Inserted " + committedCount + " of " + totalCount + " projects before a failure.", cause);
+
+		this.committedCount = committedCount;
+		this.totalCount = totalCount;
+	}
+
+	// The number of projects, from the start of the list, that were committed
+	public int getCommittedCount() {
+		return committedCount;
+	}
+
+	public int getTotalCount() {
+		return totalCount;
+	}
+
+}
@@ -0,0 +1,35 @@
+package projects.exception;
+
+/*
+ * Thrown when a project could not be updated because it was changed by someone else after it was read. The caller should
+ * read the project again and reapply its changes.
+ */
+
+@SuppressWarnings("serial")
+public class OptimisticLockException extends DbException {
+	private final int projectId;
+	private final int expectedVersion;
+	private final int actualVersion;
+
+	public OptimisticLockException(int projectId, int expectedVersion, int actualVersion) {
+		super("Project with project ID=" + projectId + " was changed by someone else (expected version " + expectedVersion
+				+ ", found version " + actualVersion + ").");
+
+		this.projectId = projectId;
+		this.expectedVersion = expectedVersion;
+		this.actualVersion = actualVersion;
+	}
+
+	public int getProjectId() {
+		return projectId;
+	}
+
+	public int getExpectedVersion() {
+		return expectedVersion;
+	}
+
+	public int getActualVersion() {
+		return actualVersion;
+	}
+
+}
@@ -0,0 +1,51 @@
+package projects.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A MetricsSink that keeps the measurements in memory. snapshot() returns the measurements recorded since the sink was created.
+ */
+
+public class InMemoryMetricsSink implements MetricsSink {
+	private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+	private final LatencyHistogram connectionAcquire = new LatencyHistogram();
+	private final LongAdder commits = new LongAdder();
+	private final LongAdder rollbacks = new LongAdder();
+
+	@Override
+	public void recordStatement(String name, long elapsedNanos, long rows, boolean failed) {
+		StatementMetrics metrics = statements.get(name);
+
+		// computeIfAbsent is only used the first time a name is seen, so the common path is a plain lookup
+		if (metrics == null) {
+			metrics = statements.computeIfAbsent(name, key -> new StatementMetrics());
+		}
+
+		metrics.record(elapsedNanos, rows, failed);
+	}
+
+	@Override
+	public void recordConnectionAcquire(long elapsedNanos) {
+		connectionAcquire.record(elapsedNanos);
+	}
+
+	@Override
+	public void recordCommit() {
+		commits.increment();
+	}
+
+	@Override
+	public void recordRollback() {
+		rollbacks.increment();
+	}
+
+	public MetricsSnapshot snapshot() {
+		Map<String, StatementStats> stats = new TreeMap<>();
+		statements.forEach((name, metrics) -> stats.put(name, metrics.snapshot(name)));
+
+		return new MetricsSnapshot(stats, connectionAcquire.snapshot(), commits.sum(), rollbacks.sum());
+	}
+}
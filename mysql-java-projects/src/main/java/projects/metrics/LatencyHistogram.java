@@ -0,0 +1,124 @@
+package projects.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A lock-free histogram of latencies in nanoseconds. Like an HDR histogram, the buckets are spaced logarithmically with linear
+ * sub-buckets: every power of two is split into 16 buckets, so a recorded value is reported within about 6% of its true value over
+ * the whole range from 1ns to hours. Recording is a few arithmetic operations and an atomic increment, with no locks.
+ */
+
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+
+		counts.incrementAndGet(bucketIndex(value));
+		totalCount.increment();
+		totalNanos.add(value);
+
+		// Reading first avoids a compare-and-set on every call once the maximum has settled
+		if (value > maxNanos.get()) {
+			maxNanos.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	// Copies the current counts. Recording can continue while the snapshot is taken.
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+
+		for (int index = 0; index < BUCKETS; index++) {
+			copy[index] = counts.get(index);
+		}
+
+		return new Snapshot(copy, totalCount.sum(), totalNanos.sum(), maxNanos.get());
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+
+		return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	// Returns the largest value that falls in the bucket
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+		long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+
+		return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/*
+	 * An immutable copy of the histogram counts
+	 */
+	public static class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+
+		Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+			this.counts = counts;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		public double getMeanNanos() {
+			return count == 0 ? 0 : (double) totalNanos / count;
+		}
+
+		// Returns the latency below which the given percentage (0 to 100) of the recorded values fall
+		public long getPercentileNanos(double percentile) {
+			long bucketTotal = 0;
+
+			for (long bucketCount : counts) {
+				bucketTotal += bucketCount;
+			}
+
+			if (bucketTotal == 0) {
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * bucketTotal));
+			long seen = 0;
+
+			for (int index = 0; index < counts.length; index++) {
+				seen += counts[index];
+
+				if (seen >= rank) {
+					return Math.min(bucketUpperBound(index), maxNanos);
+				}
+			}
+
+			return maxNanos;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package projects.metrics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Writes a snapshot of an InMemoryMetricsSink to the log at a fixed period. The reporter runs on its own daemon thread and is
+ * stopped with close().
+ */
+
+public class MetricsLogReporter implements AutoCloseable {
+	private static final Logger LOG = Logger.getLogger(MetricsLogReporter.class.getName());
+
+	private final InMemoryMetricsSink sink;
+	private final ScheduledExecutorService scheduler;
+
+	public MetricsLogReporter(InMemoryMetricsSink sink, long period, TimeUnit unit) {
+		this.sink = sink;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "metrics-log-reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		scheduler.scheduleAtFixedRate(this::report, period, period, unit);
+	}
+
+	// Logs the current snapshot
+	public void report() {
+		LOG.log(Level.INFO, "DAO metrics: {0}", sink.snapshot());
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+}
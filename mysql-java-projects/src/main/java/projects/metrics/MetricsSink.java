@@ -0,0 +1,43 @@
+package projects.metrics;
+
+/*
+ * Receives the measurements taken by the DAO layer. Implementations must be thread-safe and cheap to call, because they are called
+ * on every statement. InMemoryMetricsSink keeps the measurements for snapshots; NONE discards them.
+ */
+
+public interface MetricsSink {
+
+	// A sink that discards every measurement
+	MetricsSink NONE = new MetricsSink() {
+		@Override
+		public void recordStatement(String name, long elapsedNanos, long rows, boolean failed) {
+		}
+
+		@Override
+		public void recordConnectionAcquire(long elapsedNanos) {
+		}
+
+		@Override
+		public void recordCommit() {
+		}
+
+		@Override
+		public void recordRollback() {
+		}
+	};
+
+	// Records one execution of a named statement, with the rows it returned or affected
+	void recordStatement(String name, long elapsedNanos, long rows, boolean failed);
+
+	// Records the time spent waiting for a connection from the pool
+	void recordConnectionAcquire(long elapsedNanos);
+
+	void recordCommit();
+
+	void recordRollback();
+
+	// Starts timing a named statement. The timer records the statement when it is closed.
+	default QueryTimer start(String name) {
+		return new QueryTimer(this, name);
+	}
+}
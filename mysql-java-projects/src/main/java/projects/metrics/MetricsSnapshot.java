@@ -0,0 +1,56 @@
+package projects.metrics;
+
+import java.util.Map;
+
+/*
+ * The DAO measurements at the time the snapshot was taken: the statistics of each named statement, the connection acquire times and
+ * the number of commits and rollbacks.
+ */
+
+public class MetricsSnapshot {
+	private final Map<String, StatementStats> statements;
+	private final LatencyHistogram.Snapshot connectionAcquire;
+	private final long commits;
+	private final long rollbacks;
+
+	MetricsSnapshot(Map<String, StatementStats> statements, LatencyHistogram.Snapshot connectionAcquire, long commits,
+			long rollbacks) {
+		this.statements = statements;
+		this.connectionAcquire = connectionAcquire;
+		this.commits = commits;
+		this.rollbacks = rollbacks;
+	}
+
+	// The statistics of each statement, keyed and sorted by statement name
+	public Map<String, StatementStats> getStatements() {
+		return statements;
+	}
+
+	public LatencyHistogram.Snapshot getConnectionAcquire() {
+		return connectionAcquire;
+	}
+
+	public long getCommits() {
+		return commits;
+	}
+
+	public long getRollbacks() {
+		return rollbacks;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append(String.format("connections: acquired=%d, p50=%.1fus, p99=%.1fus, max=%.1fus; commits=%d, rollbacks=%d",
+				connectionAcquire.getCount(), connectionAcquire.getPercentileNanos(50) / 1000.0,
+				connectionAcquire.getPercentileNanos(99) / 1000.0, connectionAcquire.getMaxNanos() / 1000.0, commits,
+				rollbacks));
+
+		for (StatementStats stats : statements.values()) {
+			result.append("\n   ").append(stats);
+		}
+
+		return result.toString();
+	}
+}
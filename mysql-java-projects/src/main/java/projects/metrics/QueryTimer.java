@@ -0,0 +1,57 @@
+package projects.metrics;
+
+import java.util.Objects;
+
+/*
+ * Times one execution of a named statement. It is meant to be opened in a try-with-resources block: call success() with the row
+ * count when the statement completes, and the execution is recorded as failed if the block is left without calling it. A listener
+ * set with onSuccess() is also told about the execution if it succeeded, so a check such as the slow query log can use the same
+ * measurement instead of timing the statement again.
+ */
+
+public class QueryTimer implements AutoCloseable {
+	private final MetricsSink sink;
+	private final String name;
+	private final long startNanos = System.nanoTime();
+	private long rows = -1;
+	private Listener listener;
+
+	QueryTimer(MetricsSink sink, String name) {
+		this.sink = sink;
+		this.name = name;
+	}
+
+	// Marks the statement as successful. The rows are the rows returned by a query or affected by an update.
+	public void success(long rows) {
+		this.rows = rows;
+	}
+
+	// Marks the statement as failed after success() was called, for a statement whose rows are read after it has succeeded
+	public void fail() {
+		this.rows = -1;
+	}
+
+	// Sets the listener that is called when the timer is closed, if the statement succeeded. It returns this timer.
+	public QueryTimer onSuccess(Listener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	@Override
+	public void close() {
+		long elapsedNanos = System.nanoTime() - startNanos;
+		boolean failed = rows < 0;
+
+		sink.recordStatement(name, elapsedNanos, failed ? 0 : rows, failed);
+
+		if (!failed && Objects.nonNull(listener)) {
+			listener.succeeded(elapsedNanos, rows);
+		}
+	}
+
+	// Is told about an execution that succeeded, with the time and row count that were recorded for it
+	@FunctionalInterface
+	public interface Listener {
+		void succeeded(long elapsedNanos, long rows);
+	}
+}
@@ -0,0 +1,26 @@
+package projects.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * The measurements kept for one named statement
+ */
+
+class StatementMetrics {
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	void record(long elapsedNanos, long rowCount, boolean failed) {
+		latency.record(elapsedNanos);
+		rows.add(rowCount);
+
+		if (failed) {
+			failures.increment();
+		}
+	}
+
+	StatementStats snapshot(String name) {
+		return new StatementStats(name, latency.snapshot(), rows.sum(), failures.sum());
+	}
+}
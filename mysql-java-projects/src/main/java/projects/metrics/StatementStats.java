@@ -0,0 +1,51 @@
+package projects.metrics;
+
+/*
+ * The measurements of one named statement at the time a snapshot was taken
+ */
+
+public class StatementStats {
+	private final String name;
+	private final LatencyHistogram.Snapshot latency;
+	private final long rows;
+	private final long failures;
+
+	StatementStats(String name, LatencyHistogram.Snapshot latency, long rows, long failures) {
+		this.name = name;
+		this.latency = latency;
+		this.rows = rows;
+		this.failures = failures;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return latency.getCount();
+	}
+
+	// The total rows returned or affected by all executions
+	public long getRows() {
+		return rows;
+	}
+
+	public long getFailures() {
+		return failures;
+	}
+
+	public LatencyHistogram.Snapshot getLatency() {
+		return latency;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d, failures=%d, rows=%d, mean=%.1fus, p50=%.1fus, p90=%.1fus, p99=%.1fus, max=%.1fus",
+				name, getCount(), failures, rows, latency.getMeanNanos() / 1000, micros(50), micros(90), micros(99),
+				latency.getMaxNanos() / 1000.0);
+	}
+
+	private double micros(double percentile) {
+		return latency.getPercentileNanos(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,163 @@
+package projects.service;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import projects.dao.DbConnection;
+import projects.entity.Project;
+import projects.entity.ProjectSummary;
+
+/*
+ * An asynchronous facade over ProjectService. Each call runs on its own task and returns a CompletableFuture. When the JVM supports
+ * virtual threads (Java 21 and later), a virtual thread is started per task, so thousands of calls can wait on the database without
+ * thousands of OS threads. On older JVMs a fixed pool of maxConcurrency daemon platform threads is used instead, so calls above the
+ * limit wait in the pool's queue rather than each holding a thread. The locks a call can wait for or hold during a query (creating
+ * the connection pool, reloading the category dictionary, the project cache) are ReentrantLocks rather than synchronized, so a
+ * virtual thread unmounts from its carrier while it waits. The MySQL driver still synchronizes internally while a statement runs.
+ *
+ * The number of calls that use the database at the same time is limited to the connection pool's maximum size. Calls above the limit
+ * wait for a permit instead of queueing inside the pool, where they would time out. Every call also has a timeout: the future
+ * completes with a TimeoutException if the call does not finish in time, and the call is cancelled. A call that is still queued never
+ * runs; a running call is interrupted, which stops it while it waits for a connection but not a statement the server is executing.
+ */
+
+public class AsyncProjectService implements AutoCloseable {
+	private final ProjectService projectService;
+	private final ExecutorService executor;
+	private final Semaphore concurrencyLimit;
+	private final long timeoutMillis;
+
+	// Uses a new ProjectService, a limit equal to the connection pool's maximum size and a 30 second timeout
+	public AsyncProjectService() {
+		this(new ProjectService(), DbConnection.getPoolConfig().getMaxSize(), 30_000);
+	}
+
+	public AsyncProjectService(ProjectService projectService, int maxConcurrency, long timeoutMillis) {
+		if (maxConcurrency < 1 || timeoutMillis < 1) {
+			throw new IllegalArgumentException("The concurrency limit and timeout must be positive.");
+		}
+
+		this.projectService = Objects.requireNonNull(projectService);
+		this.executor = newTaskExecutor(maxConcurrency);
+		this.concurrencyLimit = new Semaphore(maxConcurrency, true);
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	public CompletableFuture<Project> addProject(Project project) {
+		return submit(() -> projectService.addProject(project));
+	}
+
+	public CompletableFuture<List<Project>> fetchAllProjects() {
+		return submit(projectService::fetchAllProjects);
+	}
+
+	public CompletableFuture<List<ProjectSummary>> fetchProjectSummaries() {
+		return submit(projectService::fetchProjectSummaries);
+	}
+
+	public CompletableFuture<List<Project>> fetchProjectPage(String afterProjectName, Integer afterProjectId, int pageSize) {
+		return submit(() -> projectService.fetchProjectPage(afterProjectName, afterProjectId, pageSize));
+	}
+
+	public CompletableFuture<Project> fetchProjectById(Integer projectId) {
+		return submit(() -> projectService.fetchProjectById(projectId));
+	}
+
+	public CompletableFuture<List<Project>> fetchProjectsByIds(Collection<Integer> projectIds) {
+		return submit(() -> projectService.fetchProjectsByIds(projectIds));
+	}
+
+	public CompletableFuture<Void> modifyProjectDetails(Project project) {
+		return submit(() -> {
+			projectService.modifyProjectDetails(project);
+			return null;
+		});
+	}
+
+	public CompletableFuture<Void> deleteProject(Integer projectId) {
+		return submit(() -> {
+			projectService.deleteProject(projectId);
+			return null;
+		});
+	}
+
+	/*
+	 * Runs any ProjectService call asynchronously with the same concurrency limit and the given timeout. If the returned future times
+	 * out or is cancelled, the task is cancelled too.
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> call, long timeout, TimeUnit unit) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+
+		Future<?> task = executor.submit(() -> {
+			// The call timed out or was cancelled while it was queued
+			if (result.isDone()) {
+				return;
+			}
+
+			try {
+				concurrencyLimit.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				result.completeExceptionally(e);
+				return;
+			}
+
+			try {
+				result.complete(call.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			} finally {
+				concurrencyLimit.release();
+			}
+		});
+
+		result.orTimeout(timeout, unit).whenComplete((value, error) -> {
+			if (error instanceof TimeoutException || error instanceof CancellationException) {
+				task.cancel(true);
+			}
+		});
+
+		return result;
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<T> call) {
+		return submit(call, timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	// Stops accepting calls. Calls that have already been submitted are allowed to finish.
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	/*
+	 * Returns a virtual-thread-per-task executor if the JVM has one. It is looked up by reflection so the project still builds and
+	 * runs on Java 17, where a fixed pool with one thread per permit is returned instead.
+	 */
+	private static ExecutorService newTaskExecutor(int maxConcurrency) {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+				Thread thread = new Thread(runnable, "async-project-service-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
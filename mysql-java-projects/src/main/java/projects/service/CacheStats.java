@@ -0,0 +1,69 @@
+package projects.service;
+
+/*
+ * A point-in-time snapshot of the ProjectCache counters, used to tune the cache size and time to live.
+ */
+
+public class CacheStats {
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long expirations;
+	private final long invalidations;
+	private final int size;
+	private final long weight;
+
+	CacheStats(long hits, long misses, long evictions, long expirations, long invalidations, int size, long weight) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.expirations = expirations;
+		this.invalidations = invalidations;
+		this.size = size;
+		this.weight = weight;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public double getHitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+
+	// Entries removed to stay within the maximum weight
+	public long getEvictions() {
+		return evictions;
+	}
+
+	// Entries removed because they were older than the time to live
+	public long getExpirations() {
+		return expirations;
+	}
+
+	// Entries removed because the project was changed or deleted
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	// The estimated number of bytes held by the cached projects
+	public long getWeight() {
+		return weight;
+	}
+
+	@Override
+	public String toString() {
+		return "hits=" + hits + ", misses=" + misses + ", hitRate=" + String.format("%.3f", getHitRate()) + ", evictions="
+				+ evictions + ", expirations=" + expirations + ", invalidations=" + invalidations + ", size=" + size
+				+ ", weight=" + weight;
+	}
+}
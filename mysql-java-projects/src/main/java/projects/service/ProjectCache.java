@@ -0,0 +1,233 @@
+package projects.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import projects.entity.Material;
+import projects.entity.Project;
+import projects.entity.ReadOnlyCategory;
+import projects.entity.Step;
+
+/*
+ * A bounded, least-recently-used cache of project aggregates (a project with its materials, steps and categories). The bound is an
+ * estimate of the memory held by the cached projects rather than an entry count, because one project with thousands of steps costs
+ * as much as thousands of small projects. Entries also expire after a time to live.
+ *
+ * Loads and invalidations can race: a project read from the database just before it is changed must not be cached after the change.
+ * Callers take a generation number with startLoad() before reading and pass it to put(), which ignores the project if it was
+ * invalidated in between. Each invalidation is stamped with a new generation and the stamp is kept per project ID, so invalidating
+ * one project doesn't stop the loads of other projects from being cached. Only the most recent stamps are kept; when an old one is
+ * dropped, loads that started before it are not cached at all, which is safe because they are simply read again next time.
+ *
+ * The cache keeps the Project instances it is given, so a caller must not keep or change a project after putting it. ProjectService
+ * only hands out copies of the cached projects.
+ */
+
+class ProjectCache {
+	// Rough per-object costs, in bytes, used to estimate the weight of a project
+	private static final int PROJECT_OVERHEAD = 160;
+	private static final int CHILD_OVERHEAD = 80;
+
+	// The number of invalidation stamps kept
+	private static final int MAX_STAMPS = 4096;
+
+	private final long maxWeight;
+	private final long ttlNanos;
+
+	// Guards everything below. It is a ReentrantLock rather than a monitor so a virtual thread waiting for it unmounts from its
+	// carrier thread instead of pinning it.
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// An access-ordered map, so iteration starts at the least recently used entry
+	private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	// The generation at which each recently invalidated project was invalidated, oldest first
+	private final LinkedHashMap<Integer, Long> stamps = new LinkedHashMap<>();
+
+	private long weight;
+	private long generation;
+
+	// Loads that started before this generation are not cached, because stamps they may have missed were dropped
+	private long oldestCacheableLoad;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private long invalidations;
+
+	ProjectCache(long maxWeight, long ttlMillis) {
+		if (maxWeight < 1 || ttlMillis < 1) {
+			throw new IllegalArgumentException("The cache weight and time to live must be positive.");
+		}
+
+		this.maxWeight = maxWeight;
+		this.ttlNanos = ttlMillis * 1_000_000;
+	}
+
+	// Returns the cached project, or null if it is not cached or has expired
+	Project get(Integer projectId) {
+		lock.lock();
+
+		try {
+			Entry entry = entries.get(projectId);
+
+			if (Objects.nonNull(entry) && System.nanoTime() - entry.loadedNanos > ttlNanos) {
+				remove(projectId);
+				expirations++;
+				entry = null;
+			}
+
+			if (Objects.isNull(entry)) {
+				misses++;
+				return null;
+			}
+
+			hits++;
+			return entry.project;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Returns the generation to pass to put() for a project that is about to be read from the database
+	long startLoad() {
+		lock.lock();
+
+		try {
+			return generation;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Caches a project that was read after startLoad() returned loadGeneration, unless it has been invalidated since
+	void put(Project project, long loadGeneration) {
+		lock.lock();
+
+		try {
+			Long stamp = stamps.get(project.getProjectId());
+
+			if (loadGeneration < oldestCacheableLoad || (Objects.nonNull(stamp) && stamp > loadGeneration)) {
+				return;
+			}
+
+			long projectWeight = weigh(project);
+
+			if (projectWeight > maxWeight) {
+				return;
+			}
+
+			remove(project.getProjectId());
+			entries.put(project.getProjectId(), new Entry(project, projectWeight));
+			weight += projectWeight;
+
+			Iterator<Entry> it = entries.values().iterator();
+
+			while (weight > maxWeight && it.hasNext()) {
+				Entry eldest = it.next();
+				it.remove();
+				weight -= eldest.weight;
+				evictions++;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Removes a project that has been changed or deleted
+	void invalidate(Integer projectId) {
+		lock.lock();
+
+		try {
+			generation++;
+
+			// Removed first so the stamp moves to the end of the insertion order
+			stamps.remove(projectId);
+			stamps.put(projectId, generation);
+
+			if (stamps.size() > MAX_STAMPS) {
+				Iterator<Long> it = stamps.values().iterator();
+				oldestCacheableLoad = it.next();
+				it.remove();
+			}
+
+			if (remove(projectId)) {
+				invalidations++;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void invalidateAll() {
+		lock.lock();
+
+		try {
+			generation++;
+			oldestCacheableLoad = generation;
+			stamps.clear();
+			invalidations += entries.size();
+			entries.clear();
+			weight = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	CacheStats getStats() {
+		lock.lock();
+
+		try {
+			return new CacheStats(hits, misses, evictions, expirations, invalidations, entries.size(), weight);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean remove(Integer projectId) {
+		Entry removed = entries.remove(projectId);
+
+		if (Objects.isNull(removed)) {
+			return false;
+		}
+
+		weight -= removed.weight;
+		return true;
+	}
+
+	// Estimates the number of bytes held by a project and its children. Strings are counted at two bytes per character.
+	private static long weigh(Project project) {
+		long total = PROJECT_OVERHEAD + length(project.getProjectName()) + length(project.getNotes());
+
+		for (Material material : project.getMaterials()) {
+			total += CHILD_OVERHEAD + length(material.getMaterialName());
+		}
+
+		for (Step step : project.getSteps()) {
+			total += CHILD_OVERHEAD + length(step.getStepText());
+		}
+
+		for (ReadOnlyCategory category : project.getCategories()) {
+			total += CHILD_OVERHEAD + length(category.getCategoryName());
+		}
+
+		return total;
+	}
+
+	private static long length(String value) {
+		return Objects.isNull(value) ? 0 : 2L * value.length();
+	}
+
+	private static class Entry {
+		private final Project project;
+		private final long weight;
+		private final long loadedNanos = System.nanoTime();
+
+		Entry(Project project, long weight) {
+			this.project = project;
+			this.weight = weight;
+		}
+	}
+}
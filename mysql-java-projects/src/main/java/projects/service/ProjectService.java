@@ -1,10 +1,27 @@
 package projects.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List; 
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import projects.dao.CategoryLinkChanges;
 import projects.dao.ProjectDao;
+import projects.entity.CategoryCount;
+import projects.entity.CostTotals;
+import projects.entity.Material;
 import projects.entity.Project;
+import projects.entity.ProjectCost;
+import projects.entity.ProjectSummary;
+import projects.entity.ReadOnlyCategory;
+import projects.entity.Step;
 import projects.exception.DbException;
+import projects.exception.OptimisticLockException;
+import projects.metrics.MetricsSnapshot;
 
 /*
  * This is the service layer used to pass the data between the ProjectsApp class and the ProjectDao class
@@ -12,7 +29,18 @@ import projects.exception.DbException;
 
 public class ProjectService {
 
+	// The number of rows read from the server at a time when projects are streamed
+	private static final int DEFAULT_FETCH_SIZE = 500;
+
+	// The number of rows sent in each JDBC batch when projects are inserted in bulk
+	private static final int DEFAULT_BATCH_SIZE = 500;
+
+	// The estimated memory and time to live of the cached project aggregates
+	private static final long DEFAULT_CACHE_WEIGHT = 64L * 1024 * 1024;
+	private static final long DEFAULT_CACHE_TTL_MILLIS = 10 * 60 * 1000;
+
 	private ProjectDao projectDao = new ProjectDao();
+	private ProjectCache projectCache = new ProjectCache(DEFAULT_CACHE_WEIGHT, DEFAULT_CACHE_TTL_MILLIS);
 
 
 	// Calls a method in the ProjectDao class to insert a project into the project table.
@@ -20,27 +48,177 @@ public class ProjectService {
 		return projectDao.insertProject(project);
 	}
 
+	/*
+	 * Calls a method in the ProjectDao class to insert many projects at once, including their materials, steps, and category links.
+	 * The generated IDs are set on the projects, materials, and steps. If a batch fails, a BatchInsertException tells how many of the
+	 * projects were saved; the rest have no IDs.
+	 */
+	public List<Project> addProjects(List<Project> projects) {
+		return addProjects(projects, DEFAULT_BATCH_SIZE);
+	}
+
+	// Inserts many projects using JDBC batches of the given size
+	public List<Project> addProjects(List<Project> projects, int batchSize) {
+		return projectDao.insertProjects(projects, batchSize);
+	}
+
 	// Retrieves all of the projects when it calls a method in the ProjectDao class. It does not retrieve the projects' categories, steps, or materials.
 	public List<Project> fetchAllProjects() {
 		return projectDao.fetchAllProjects();
 	}
 
+	/*
+	 * Retrieves one page of projects in name order. Pass null for afterProjectName to get the first page, then pass the name and ID
+	 * of the last project on each page to get the next one. It does not retrieve the projects' categories, steps, or materials.
+	 */
+	public List<Project> fetchProjectPage(String afterProjectName, Integer afterProjectId, int pageSize) {
+		return projectDao.fetchProjectPage(afterProjectName, afterProjectId, pageSize);
+	}
+
+	// Passes each project to the action as it is read from the database, without loading the whole project table into memory
+	public void forEachProject(Consumer<Project> action) {
+		projectDao.forEachProject(DEFAULT_FETCH_SIZE, action);
+	}
+
+	// Returns a stream of all of the projects that is read from the database as it is consumed. The stream must be closed.
+	public Stream<Project> streamAllProjects() {
+		return projectDao.streamAllProjects(DEFAULT_FETCH_SIZE);
+	}
+
+	// Retrieves the ID and name of every project. The other project columns are not read from the database.
+	public List<ProjectSummary> fetchProjectSummaries() {
+		return projectDao.fetchProjectSummaries();
+	}
+
+	/*
+	 * Retrieves one page of the projects in a category, in project ID order. Pass null for afterProjectId to get the first page,
+	 * then pass the ID of the last project on each page to get the next one.
+	 */
+	public List<ProjectSummary> fetchProjectsInCategory(Integer categoryId, Integer afterProjectId, int pageSize) {
+		return projectDao.fetchProjectsInCategory(categoryId, afterProjectId, pageSize);
+	}
+
+	/*
+	 * Retrieves one page of the projects in any of the categories (or in all of them if matchAll is true), in project ID order. For
+	 * matchAll the page is read fastest when the category with the fewest projects is passed first.
+	 */
+	public List<ProjectSummary> fetchProjectsInCategories(Collection<Integer> categoryIds, boolean matchAll,
+			Integer afterProjectId, int pageSize) {
+		return projectDao.fetchProjectsInCategories(categoryIds, matchAll, afterProjectId, pageSize);
+	}
+
+	// Retrieves the number of projects in each category
+	public List<CategoryCount> fetchCategoryCounts() {
+		return projectDao.fetchCategoryCounts();
+	}
+
+	// Passes the ID and name of each project to the action as it is read from the database
+	public void forEachProjectSummary(Consumer<ProjectSummary> action) {
+		projectDao.forEachProjectSummary(DEFAULT_FETCH_SIZE, action);
+	}
+
+	// Passes the hours and material cost of each project, in fixed-point form, to the action as it is read from the database
+	public void forEachProjectCost(Consumer<ProjectCost> action) {
+		projectDao.forEachProjectCost(DEFAULT_FETCH_SIZE, action);
+	}
+
+	// Retrieves the hours and material cost of every project in fixed-point form, in project ID order
+	public List<ProjectCost> fetchProjectCosts() {
+		List<ProjectCost> costs = new ArrayList<>();
+		forEachProjectCost(costs::add);
+
+		return costs;
+	}
+
+	// Adds up the hours and material cost of every project without loading the projects or creating a BigDecimal per row
+	public CostTotals fetchCostTotals() {
+		CostTotals totals = new CostTotals();
+		forEachProjectCost(totals::add);
+
+		return totals;
+	}
+
+	// Retrieves only the given material columns for a project (or for every project if projectId is null)
+	public List<Material> fetchMaterialColumns(Integer projectId, List<String> columns) {
+		return projectDao.fetchMaterialColumns(projectId, columns);
+	}
+
+	// Retrieves only the given step columns for a project (or for every project if projectId is null)
+	public List<Step> fetchStepColumns(Integer projectId, List<String> columns) {
+		return projectDao.fetchStepColumns(projectId, columns);
+	}
+
 	/* 
 	 * Retrieves a project when it calls a method in the ProjectDao class. The project's materials, steps, and categories are also retrieved.
-	 * It throws an exception if the project does not exist in the project table.
+	 * It throws an exception if the project does not exist in the project table. Projects are cached, so a project that was read recently
+	 * is returned without going to the database. The returned project is a copy of the cached one, so it can be changed and passed to
+	 * modifyProjectDetails() without affecting other readers.
 	 */
 	public Project fetchProjectById(Integer projectId) {
-		return projectDao.fetchProjectById(projectId).orElseThrow(
+		Project project = projectCache.get(projectId);
+
+		if (Objects.nonNull(project)) {
+			return project.copy();
+		}
+
+		long generation = projectCache.startLoad();
+
+		project = projectDao.fetchProjectById(projectId).orElseThrow(
 				() -> new NoSuchElementException("Project with project ID=" + projectId + " doesn't exist."));
+
+		projectCache.put(project, generation);
+
+		return project.copy();
+	}
+
+	// Returns the latency, row and transaction counters recorded by the DAO layer
+	public MetricsSnapshot getDaoMetrics() {
+		return ProjectDao.getDefaultMetrics().snapshot();
+	}
+
+	// Returns the project cache counters (hits, misses, evictions) so the cache size and time to live can be tuned
+	public CacheStats getCacheStats() {
+		return projectCache.getStats();
+	}
+
+	/*
+	 * Retrieves the projects with the given IDs, including their materials, steps, and categories. The projects are loaded together
+	 * rather than one at a time. IDs that don't exist are skipped. The projects are also put in the cache, and like the result of
+	 * fetchProjectById() the returned projects are copies that the caller may change.
+	 */
+	public List<Project> fetchProjectsByIds(Collection<Integer> projectIds) {
+		long generation = projectCache.startLoad();
+		List<Project> projects = projectDao.fetchProjectsByIds(projectIds);
+		List<Project> copies = new ArrayList<>(projects.size());
+
+		for (Project project : projects) {
+			projectCache.put(project, generation);
+			copies.add(project.copy());
+		}
+
+		return copies;
 	}
 
 	/* 
 	 * Calls a method in the ProjectDao class to update the project data. It throws an exception if the project does not exist 
-	 * in the project table.
+	 * in the project table. If the project has a version and the row was changed by someone else since that version was read,
+	 * it throws an OptimisticLockException instead.
 	 */
 	public void modifyProjectDetails(Project project) {
-		if (!projectDao.modifyProjectDetails(project)) {
-			throw new DbException("Project with project ID=" + project.getProjectId() + " doesn't exist.");
+		// The cached copy is removed after the update so a read that raced with the update cannot leave stale data in the cache
+		try {
+			if (!projectDao.modifyProjectDetails(project)) {
+				Optional<Integer> actualVersion = Objects.isNull(project.getVersion()) ? Optional.empty()
+						: projectDao.fetchProjectVersion(project.getProjectId());
+
+				if (actualVersion.isPresent()) {
+					throw new OptimisticLockException(project.getProjectId(), project.getVersion(), actualVersion.get());
+				}
+
+				throw new DbException("Project with project ID=" + project.getProjectId() + " doesn't exist.");
+			}
+		} finally {
+			projectCache.invalidate(project.getProjectId());
 		}
 
 	}
@@ -50,8 +228,75 @@ public class ProjectService {
 	 * in the project table.
 	 */
 	public void deleteProject(Integer projectId) {
-		if (!projectDao.deleteProject(projectId)) {
-			throw new DbException("Project with project ID=" + projectId + " doesn't exist.");
+		try {
+			if (!projectDao.deleteProject(projectId)) {
+				throw new DbException("Project with project ID=" + projectId + " doesn't exist.");
+			}
+		} finally {
+			projectCache.invalidate(projectId);
+		}
+	}
+
+	// Loads the category dictionary, so the first project load doesn't have to. It returns every category in ID order.
+	public List<ReadOnlyCategory> loadCategories() {
+		return projectDao.getCategoryDictionary().load();
+	}
+
+	/*
+	 * Reads the categories again and clears the project cache. Call it after a category is renamed or deleted in the database; new
+	 * categories are picked up without it. Nothing in this application changes existing categories, so that only happens outside it.
+	 */
+	public void refreshCategories() {
+		projectDao.getCategoryDictionary().refresh();
+		projectCache.invalidateAll();
+	}
+
+	// Links a project to the given categories, keeping the categories it already has
+	public CategoryLinkChanges addProjectCategories(Integer projectId, Collection<Integer> categoryIds) {
+		return addProjectCategories(Map.of(projectId, categoryIds));
+	}
+
+	// Unlinks a project from the given categories
+	public CategoryLinkChanges removeProjectCategories(Integer projectId, Collection<Integer> categoryIds) {
+		return removeProjectCategories(Map.of(projectId, categoryIds));
+	}
+
+	// Makes the given categories the complete category set of a project
+	public CategoryLinkChanges replaceProjectCategories(Integer projectId, Collection<Integer> categoryIds) {
+		return replaceProjectCategories(Map.of(projectId, categoryIds));
+	}
+
+	/*
+	 * The bulk versions take the category IDs for each project ID, so thousands of projects can be re-categorized in one
+	 * transaction. Only the links that differ from the current ones are written. The cached projects are removed afterwards.
+	 */
+	public CategoryLinkChanges addProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds) {
+		try {
+			return projectDao.addProjectCategories(categoryIds, DEFAULT_BATCH_SIZE);
+		} finally {
+			invalidate(categoryIds.keySet());
+		}
+	}
+
+	public CategoryLinkChanges removeProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds) {
+		try {
+			return projectDao.removeProjectCategories(categoryIds, DEFAULT_BATCH_SIZE);
+		} finally {
+			invalidate(categoryIds.keySet());
+		}
+	}
+
+	public CategoryLinkChanges replaceProjectCategories(Map<Integer, ? extends Collection<Integer>> categoryIds) {
+		try {
+			return projectDao.replaceProjectCategories(categoryIds, DEFAULT_BATCH_SIZE);
+		} finally {
+			invalidate(categoryIds.keySet());
+		}
+	}
+
+	private void invalidate(Collection<Integer> projectIds) {
+		for (Integer projectId : projectIds) {
+			projectCache.invalidate(projectId);
 		}
 	}
 
@@ -0,0 +1,29 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets one field of an entity as a statement parameter. Column binders are looked up once for a
+ * statement (see {@link DaoBase#columnBinders(Class, String...)}) and called for every row that is
+ * bound to it.
+ * 
+ * @author Promineo
+ *
+ * @param <T> The entity class.
+ */
+@FunctionalInterface
+public interface ColumnBinder<T> {
+  /**
+   * Sets the parameter from the entity's field.
+   * 
+   * @param stmt The prepared statement on which to set the parameter.
+   * @param parameterIndex The one-based index of the parameter.
+   * @param entity The entity whose field value is bound.
+   * @throws SQLException Thrown if an error occurs.
+   */
+  void bind(PreparedStatement stmt, int parameterIndex, T entity) throws SQLException;
+}
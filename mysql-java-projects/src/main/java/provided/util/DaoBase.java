@@ -3,20 +3,20 @@
  */
 package provided.util;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
+import java.lang.reflect.Modifier;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.sql.Types;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class contains utility methods for the DAO class.
@@ -25,6 +25,31 @@ import java.util.Objects;
  *
  */
 public abstract class DaoBase {
+  /**
+   * Row mappers keyed by class and result set layout. The number of entries is bounded by the
+   * number of distinct select lists in the application.
+   */
+  private static final Map<MapperKey, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+  /**
+   * The column names of each entity class. See {@link #columnNames(Class)}.
+   */
+  private static final ClassValue<List<String>> COLUMN_NAMES = new ClassValue<>() {
+    @Override
+    protected List<String> computeValue(Class<?> classType) {
+      List<String> names = new ArrayList<>();
+
+      for(Field field : classType.getDeclaredFields()) {
+        if(!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+            && !Collection.class.isAssignableFrom(field.getType())) {
+          names.add(camelCaseToSnakeCase(field.getName()));
+        }
+      }
+
+      return List.copyOf(names);
+    }
+  };
+
   /**
    * This starts a MySQL transaction. Normally MySQL starts a transaction before every request and
    * commits it after each request. By turning auto-commit off, the transaction is only committed
@@ -68,72 +93,16 @@ public abstract class DaoBase {
    * @param value The parameter value. This may be null.
    * @param classType This is the Java class type of the parameter. It is used to select the correct
    *        method on the driver so that the parameter is added correctly. It is also used to set
-   *        the type in case the parameter is null.
+   *        the type in case the parameter is null. Code that binds the same parameter repeatedly
+   *        should look up the {@link ParameterBinder} once and call it directly instead.
    * @throws SQLException Thrown if an error occurs.
    */
   protected void setParameter(PreparedStatement stmt, int parameterIndex, Object value,
       Class<?> classType) throws SQLException {
-    int sqlType = convertJavaClassToSqlType(classType);
-
-    if(Objects.isNull(value)) {
-      stmt.setNull(parameterIndex, sqlType);
-    }
-    else {
-      switch(sqlType) {
-        case Types.DECIMAL:
-          stmt.setBigDecimal(parameterIndex, (BigDecimal)value);
-          break;
-
-        case Types.DOUBLE:
-          stmt.setDouble(parameterIndex, (Double)value);
-          break;
-
-        case Types.INTEGER:
-          stmt.setInt(parameterIndex, (Integer)value);
-          break;
-
-        case Types.OTHER:
-          stmt.setObject(parameterIndex, value);
-          break;
-
-        case Types.VARCHAR:
-          stmt.setString(parameterIndex, (String)value);
-          break;
-
-        default:
-          throw new DaoException("Unknown parameter type: " + classType);
-      }
-    }
-  }
-
-  /**
-   * Converts from a Java class to a java.sql.Types value.
-   * 
-   * @param classType The class type
-   * @return A java.sql.Types value
-   */
-  private int convertJavaClassToSqlType(Class<?> classType) {
-    if(Integer.class.equals(classType)) {
-      return Types.INTEGER;
-    }
-
-    if(String.class.equals(classType)) {
-      return Types.VARCHAR;
-    }
-
-    if(Double.class.equals(classType)) {
-      return Types.DOUBLE;
-    }
-
-    if(BigDecimal.class.equals(classType)) {
-      return Types.DECIMAL;
-    }
-
-    if(LocalTime.class.equals(classType)) {
-      return Types.OTHER;
-    }
+    @SuppressWarnings("unchecked")
+    ParameterBinder<Object> binder = (ParameterBinder<Object>)ParameterBinder.forClass(classType);
 
-    throw new DaoException("Unsupported class type: " + classType.getName());
+    binder.bind(stmt, parameterIndex, value);
   }
 
   /**
@@ -166,20 +135,21 @@ public abstract class DaoBase {
   }
 
   /**
-   * This returns the integer primary key value of the last row inserted into the given table. It
+   * This returns the integer primary key value of the last row inserted on the connection. It
    * allows the ID to be inserted into the entity object after inserting it into the table.
    * 
-   * The other way of doing this is to call {@link Statement#getGeneratedKeys()}, but this returns a
-   * result set that needs to be parsed for the ID. It's not really any easier than this approach
-   * but should be closer to database-agnostic.
+   * Prefer {@link #getGeneratedId(Statement)}, which reads the key that the driver already received
+   * with the insert's response and so does not need another round trip to the server.
    * 
    * @param conn The connection
-   * @param table The name of the table on which to get the last inserted primary key value
+   * @param table The name of the table on which the row was inserted. LAST_INSERT_ID() is tracked
+   *        per connection, so the table is not part of the query. (Selecting it FROM the table
+   *        returned one row for every row in the table.)
    * @return The primary key value
    * @throws SQLException Thrown if an error occurs
    */
   protected Integer getLastInsertId(Connection conn, String table) throws SQLException {
-    String sql = String.format("SELECT LAST_INSERT_ID() FROM %s", table);
+    String sql = "SELECT LAST_INSERT_ID()";
 
     try(Statement stmt = conn.createStatement()) {
       try(ResultSet rs = stmt.executeQuery(sql)) {
@@ -192,6 +162,48 @@ public abstract class DaoBase {
     }
   }
 
+  /**
+   * This returns the integer primary key value generated by the last execution of a statement that
+   * inserted one row. The statement must have been prepared with
+   * {@link Statement#RETURN_GENERATED_KEYS}. The key is returned by the server as part of the
+   * insert's response, so no extra query is needed.
+   * 
+   * @param stmt The statement that inserted the row
+   * @return The generated primary key value
+   * @throws SQLException Thrown if no key was generated
+   */
+  protected Integer getGeneratedId(Statement stmt) throws SQLException {
+    try(ResultSet rs = stmt.getGeneratedKeys()) {
+      if(rs.next()) {
+        return rs.getInt(1);
+      }
+
+      throw new SQLException("Unable to retrieve the primary key value. No generated keys!");
+    }
+  }
+
+  /**
+   * This returns the integer primary key values generated by the last execution of a statement, in
+   * the order the rows were inserted. The statement must have been prepared with
+   * {@link Statement#RETURN_GENERATED_KEYS}. After a batch is executed, there is one key for each
+   * row in the batch.
+   * 
+   * @param stmt The statement that inserted the rows
+   * @return The generated primary key values
+   * @throws SQLException Thrown if an error occurs
+   */
+  protected List<Integer> getGeneratedIds(Statement stmt) throws SQLException {
+    try(ResultSet rs = stmt.getGeneratedKeys()) {
+      List<Integer> ids = new ArrayList<>();
+
+      while(rs.next()) {
+        ids.add(rs.getInt(1));
+      }
+
+      return ids;
+    }
+  }
+
   /**
    * This extracts an object of the given type from a result set. The object must have a
    * zero-argument constructor. It builds an object from a result set using reflection as follows:
@@ -205,6 +217,10 @@ public abstract class DaoBase {
    * <li>The value is assigned to the field in the object.</li>
    * </ol>
    * 
+   * The reflective steps are only done the first time a class is extracted from a result set with
+   * a given set of columns. The resulting plan is cached and reused (see
+   * {@link #rowMapper(ResultSet, Class)}).
+   * 
    * Example: if a query returns values for a recipe, a Recipe object is returned. So:
    * 
    * <pre>
@@ -232,67 +248,140 @@ public abstract class DaoBase {
    */
   protected <T> T extract(ResultSet rs, Class<T> classType) {
     try {
-      /* Obtain the constructor and create an object of the correct type. */
-      Constructor<T> con = classType.getConstructor();
-      T obj = con.newInstance();
+      return rowMapper(rs, classType).map(rs);
+    }
+    catch(Exception e) {
+      throw new DaoException("Unable to create object of type " + classType.getName(), e);
+    }
+  }
 
-      /* Get the list of fields and loop through them. */
-      for(Field field : classType.getDeclaredFields()) {
-        String colName = camelCaseToSnakeCase(field.getName());
-        Class<?> fieldType = field.getType();
-
-        /*
-         * Set the field accessible flag which means that we can populate even private fields
-         * without using the setter.
-         */
-        field.setAccessible(true);
-        Object fieldValue = null;
-
-        try {
-          fieldValue = rs.getObject(colName);
-        }
-        catch(SQLException e) {
-          /*
-           * An exception caught here means that the field name isn't in the result set. Don't take
-           * any action.
-           */
-        }
+  /**
+   * This returns a row mapper for the given class and the columns of the given result set. Use it
+   * when reading many rows so the mapper is looked up once instead of once per row:
+   * 
+   * <pre>
+   * RowMapper&lt;Recipe&gt; mapper = rowMapper(rs, Recipe.class);
+   * 
+   * while(rs.next()) {
+   *   recipes.add(mapper.map(rs));
+   * }
+   * </pre>
+   * 
+   * Mappers are cached by class and result set layout (the column labels, in order), so every
+   * query with the same select list shares one mapper. The mapper generated at compile time for a
+   * {@link MappedEntity} class is used when it is available. Otherwise the fields are set by
+   * reflection.
+   * 
+   * @param <T> The Generic for the type of object to create.
+   * @param rs The result set that will be mapped.
+   * @param classType The actual class type of the object to create.
+   * @return A row mapper for the result set's columns.
+   */
+  protected <T> RowMapper<T> rowMapper(ResultSet rs, Class<T> classType) {
+    try {
+      ResultSetMetaData metaData = rs.getMetaData();
+      MapperKey key = new MapperKey(classType, columnLabels(metaData));
+
+      @SuppressWarnings("unchecked")
+      RowMapper<T> mapper = (RowMapper<T>)MAPPERS.get(key);
+
+      if(Objects.isNull(mapper)) {
+        mapper = EntityMappers.forClass(classType).rowMapper(metaData);
+
+        @SuppressWarnings("unchecked")
+        RowMapper<T> existing = (RowMapper<T>)MAPPERS.putIfAbsent(key, mapper);
 
-        /*
-         * Only set the value in the object if there is a value with the same name in the result
-         * set. This will preserve instance variables (like lists) that are assigned values when the
-         * object is created.
-         */
-        if(Objects.nonNull(fieldValue)) {
-          /*
-           * Convert the following types: Time -> LocalTime, and Timestamp -> LocalDateTime.
-           */
-          if(fieldValue instanceof Time && fieldType.equals(LocalTime.class)) {
-            fieldValue = ((Time)fieldValue).toLocalTime();
-          }
-          else if(fieldValue instanceof Timestamp && fieldType.equals(LocalDateTime.class)) {
-            fieldValue = ((Timestamp)fieldValue).toLocalDateTime();
-          }
-
-          field.set(obj, fieldValue);
+        if(Objects.nonNull(existing)) {
+          mapper = existing;
         }
       }
 
-      return obj;
-
+      return mapper;
     }
     catch(Exception e) {
-      throw new DaoException("Unable to create object of type " + classType.getName(), e);
+      throw new DaoException("Unable to create row mapper for type " + classType.getName(), e);
     }
   }
 
+  /**
+   * This returns the names of the columns that {@link #extract(ResultSet, Class)} can populate for
+   * the given class: the snake case names of its instance fields, leaving out transient fields and
+   * collections (like a list of child entities). It is used to check a caller-supplied column list
+   * before the column names are put into SQL.
+   * 
+   * @param classType The entity class.
+   * @return The column names, in field declaration order.
+   */
+  protected static List<String> columnNames(Class<?> classType) {
+    return COLUMN_NAMES.get(classType);
+  }
+
+  /**
+   * This returns the binders that set the given columns of an entity as statement parameters, in
+   * the order of the columns. Look them up once for a statement, when the statement's SQL is
+   * defined, and pass them to {@link #bindColumns(PreparedStatement, List, Object)} for each row.
+   * 
+   * @param <T> The entity class.
+   * @param classType The entity class.
+   * @param columns The snake case column names, in parameter order.
+   * @return The binders.
+   * @throws DaoException Thrown if the entity has no field for one of the columns.
+   */
+  protected static <T> List<ColumnBinder<T>> columnBinders(Class<T> classType, String... columns) {
+    EntityMapper<T> mapper = EntityMappers.forClass(classType);
+    List<ColumnBinder<T>> binders = new ArrayList<>(columns.length);
+
+    for(String column : columns) {
+      ColumnBinder<T> binder = mapper.columnBinder(column);
+
+      if(Objects.isNull(binder)) {
+        throw new DaoException("Class " + classType.getName() + " has no field for column " + column);
+      }
+
+      binders.add(binder);
+    }
+
+    return List.copyOf(binders);
+  }
+
+  /**
+   * This sets the statement's parameters, starting with the first, from the entity's fields.
+   * 
+   * @param <T> The entity class.
+   * @param stmt The prepared statement.
+   * @param binders The binders from {@link #columnBinders(Class, String...)}.
+   * @param entity The entity whose fields are bound.
+   * @throws SQLException Thrown if an error occurs.
+   */
+  protected static <T> void bindColumns(PreparedStatement stmt, List<ColumnBinder<T>> binders,
+      T entity) throws SQLException {
+    for(int index = 0; index < binders.size(); index++) {
+      binders.get(index).bind(stmt, index + 1, entity);
+    }
+  }
+
+  /**
+   * Returns the column labels of a result set, in order. Together with the class type this
+   * identifies a cached row mapper.
+   */
+  private static List<String> columnLabels(ResultSetMetaData metaData) throws SQLException {
+    int columnCount = metaData.getColumnCount();
+    List<String> labels = new ArrayList<>(columnCount);
+
+    for(int col = 1; col <= columnCount; col++) {
+      labels.add(metaData.getColumnLabel(col));
+    }
+
+    return labels;
+  }
+
   /**
    * This converts a camel case value (rowInsertTime) to snake case (row_insert_time).
    * 
    * @param identifier The name in camel case to convert.
    * @return The name converted to snake case.
    */
-  private String camelCaseToSnakeCase(String identifier) {
+  static String camelCaseToSnakeCase(String identifier) {
     StringBuilder nameBuilder = new StringBuilder();
 
     for(char ch : identifier.toCharArray()) {
@@ -307,6 +396,40 @@ public abstract class DaoBase {
     return nameBuilder.toString();
   }
 
+  /**
+   * The key of a cached row mapper.
+   */
+  private static final class MapperKey {
+    private final Class<?> classType;
+    private final List<String> columnLabels;
+    private final int hash;
+
+    MapperKey(Class<?> classType, List<String> columnLabels) {
+      this.classType = classType;
+      this.columnLabels = columnLabels;
+      this.hash = 31 * classType.hashCode() + columnLabels.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if(this == obj) {
+        return true;
+      }
+
+      if(!(obj instanceof MapperKey)) {
+        return false;
+      }
+
+      MapperKey other = (MapperKey)obj;
+      return classType.equals(other.classType) && columnLabels.equals(other.columnLabels);
+    }
+  }
+
   /**
    * This class declares the exception throw by the {@link DaoBase} class. It is a thin wrapper for
    * {@link RuntimeException}.
@@ -0,0 +1,65 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates row mappers and parameter binders for one entity class. An implementation is generated
+ * at compile time for every class annotated with {@link MappedEntity} and registered with
+ * {@link java.util.ServiceLoader}. {@link DaoBase} uses the generated mapper of a class when there
+ * is one and falls back to reflection when there isn't.
+ * 
+ * @author Promineo
+ *
+ * @param <T> The entity class.
+ */
+public interface EntityMapper<T> {
+  /**
+   * Returns the entity class that this mapper handles.
+   */
+  Class<T> entityType();
+
+  /**
+   * Creates a row mapper for result sets with the given columns. Fields without a matching column
+   * are not set.
+   * 
+   * @param metaData The metadata of the result set that will be mapped.
+   * @return The row mapper.
+   * @throws SQLException Thrown if the metadata cannot be read.
+   */
+  RowMapper<T> rowMapper(ResultSetMetaData metaData) throws SQLException;
+
+  /**
+   * Returns a binder that sets the value of the field stored in the given column as a statement
+   * parameter.
+   * 
+   * @param column The snake case column name.
+   * @return The binder, or null if the entity has no field for the column.
+   */
+  ColumnBinder<T> columnBinder(String column);
+
+  /**
+   * Builds a map of lower case column label to one-based column index. If a label appears more
+   * than once, the first column wins, which is what {@link java.sql.ResultSet#findColumn(String)}
+   * does.
+   * 
+   * @param metaData The result set metadata.
+   * @return The column indexes by label.
+   * @throws SQLException Thrown if the metadata cannot be read.
+   */
+  static Map<String, Integer> columnIndexes(ResultSetMetaData metaData) throws SQLException {
+    Map<String, Integer> columns = new HashMap<>();
+
+    for(int col = 1; col <= metaData.getColumnCount(); col++) {
+      columns.putIfAbsent(metaData.getColumnLabel(col).toLowerCase(Locale.ROOT), col);
+    }
+
+    return columns;
+  }
+}
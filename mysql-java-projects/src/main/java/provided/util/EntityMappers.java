@@ -0,0 +1,51 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Finds the {@link EntityMapper} of a class. The mappers generated at compile time are loaded
+ * once with {@link ServiceLoader}. A class without a generated mapper gets a
+ * {@link ReflectiveEntityMapper}, which works the same way but uses reflection.
+ * 
+ * @author Promineo
+ *
+ */
+class EntityMappers {
+  private static final ClassValue<EntityMapper<?>> MAPPERS = new ClassValue<>() {
+    @Override
+    protected EntityMapper<?> computeValue(Class<?> classType) {
+      EntityMapper<?> generated = GeneratedMappers.MAPPERS.get(classType);
+      return generated != null ? generated : new ReflectiveEntityMapper<>(classType);
+    }
+  };
+
+  private EntityMappers() {
+  }
+
+  /**
+   * Returns the mapper for the class, generated if there is one.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> EntityMapper<T> forClass(Class<T> classType) {
+    return (EntityMapper<T>)MAPPERS.get(classType);
+  }
+
+  /**
+   * The generated mappers, loaded the first time a mapper is requested.
+   */
+  private static class GeneratedMappers {
+    private static final Map<Class<?>, EntityMapper<?>> MAPPERS = new HashMap<>();
+
+    static {
+      for(EntityMapper<?> mapper : ServiceLoader.load(EntityMapper.class,
+          EntityMappers.class.getClassLoader())) {
+        MAPPERS.put(mapper.entityType(), mapper);
+      }
+    }
+  }
+}
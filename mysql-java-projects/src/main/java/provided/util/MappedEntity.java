@@ -0,0 +1,31 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity class for which an {@link EntityMapper} is generated at compile time. The
+ * generated mapper reads each field from the column with the snake case name of the field and
+ * binds it as a statement parameter, calling the entity's getters and setters instead of using
+ * reflection. Static and transient fields and collections are left out, the same as in
+ * {@link DaoBase#extract(java.sql.ResultSet, Class)}.
+ * 
+ * @author Promineo
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface MappedEntity {
+  /**
+   * The name of a public, no-argument method that the generated row mapper calls after it has set
+   * the fields of a new entity. Leave it empty if there is nothing to call.
+   */
+  String afterLoad() default "";
+}
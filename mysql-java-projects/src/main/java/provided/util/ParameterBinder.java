@@ -0,0 +1,183 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Sets a parameter of one Java type on a prepared statement. Each binder calls the driver setter for
+ * its type directly and uses its own SQL type when the value is null, so there is nothing to look up
+ * when a parameter is bound. Look a binder up once with {@link #forClass(Class)}, keep it with the
+ * statement it binds (in a constant, for example) and call {@link #bind} for every execution.
+ * 
+ * @author Promineo
+ *
+ * @param <T> The Java type of the parameter.
+ */
+public abstract class ParameterBinder<T> {
+  public static final ParameterBinder<Integer> INTEGER = new ParameterBinder<>(Types.INTEGER) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, Integer value)
+        throws SQLException {
+      stmt.setInt(parameterIndex, value);
+    }
+  };
+
+  public static final ParameterBinder<Long> LONG = new ParameterBinder<>(Types.BIGINT) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, Long value)
+        throws SQLException {
+      stmt.setLong(parameterIndex, value);
+    }
+  };
+
+  public static final ParameterBinder<String> STRING = new ParameterBinder<>(Types.VARCHAR) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, String value)
+        throws SQLException {
+      stmt.setString(parameterIndex, value);
+    }
+  };
+
+  public static final ParameterBinder<Double> DOUBLE = new ParameterBinder<>(Types.DOUBLE) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, Double value)
+        throws SQLException {
+      stmt.setDouble(parameterIndex, value);
+    }
+  };
+
+  public static final ParameterBinder<BigDecimal> DECIMAL = new ParameterBinder<>(Types.DECIMAL) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, BigDecimal value)
+        throws SQLException {
+      stmt.setBigDecimal(parameterIndex, value);
+    }
+  };
+
+  public static final ParameterBinder<Boolean> BOOLEAN = new ParameterBinder<>(Types.BOOLEAN) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, Boolean value)
+        throws SQLException {
+      stmt.setBoolean(parameterIndex, value);
+    }
+  };
+
+  /*
+   * The java.time types are passed to the driver as they are (JDBC 4.2) with an explicit SQL type,
+   * so the driver does not have to work out the type from the value.
+   */
+  public static final ParameterBinder<LocalDate> LOCAL_DATE = new ParameterBinder<>(Types.DATE) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, LocalDate value)
+        throws SQLException {
+      stmt.setObject(parameterIndex, value, Types.DATE);
+    }
+  };
+
+  public static final ParameterBinder<LocalDateTime> LOCAL_DATE_TIME =
+      new ParameterBinder<>(Types.TIMESTAMP) {
+        @Override
+        protected void bindValue(PreparedStatement stmt, int parameterIndex, LocalDateTime value)
+            throws SQLException {
+          stmt.setObject(parameterIndex, value, Types.TIMESTAMP);
+        }
+      };
+
+  public static final ParameterBinder<LocalTime> LOCAL_TIME = new ParameterBinder<>(Types.TIME) {
+    @Override
+    protected void bindValue(PreparedStatement stmt, int parameterIndex, LocalTime value)
+        throws SQLException {
+      stmt.setObject(parameterIndex, value, Types.TIME);
+    }
+  };
+
+  /**
+   * The binder of each supported class. The lookup is done once per class and then cached.
+   */
+  private static final ClassValue<ParameterBinder<?>> BINDERS = new ClassValue<>() {
+    @Override
+    protected ParameterBinder<?> computeValue(Class<?> classType) {
+      // @formatter:off
+      ParameterBinder<?>[] binders = {
+          INTEGER, LONG, STRING, DOUBLE, DECIMAL, BOOLEAN, LOCAL_DATE, LOCAL_DATE_TIME, LOCAL_TIME
+      };
+      Class<?>[] classes = {
+          Integer.class, Long.class, String.class, Double.class, BigDecimal.class, Boolean.class,
+          LocalDate.class, LocalDateTime.class, LocalTime.class
+      };
+      // @formatter:on
+
+      for(int index = 0; index < classes.length; index++) {
+        if(classes[index].equals(classType)) {
+          return binders[index];
+        }
+      }
+
+      return null;
+    }
+  };
+
+  private final int sqlType;
+
+  private ParameterBinder(int sqlType) {
+    this.sqlType = sqlType;
+  }
+
+  /**
+   * Returns the binder for parameters of the given Java class.
+   * 
+   * @param <T> The Java type of the parameter.
+   * @param classType The Java class of the parameter.
+   * @return The binder.
+   * @throws DaoBase.DaoException Thrown if the class is not supported.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> ParameterBinder<T> forClass(Class<T> classType) {
+    ParameterBinder<T> binder = (ParameterBinder<T>)BINDERS.get(classType);
+
+    if(Objects.isNull(binder)) {
+      throw new DaoBase.DaoException("Unsupported class type: " + classType.getName());
+    }
+
+    return binder;
+  }
+
+  /**
+   * Sets the parameter on the statement. A null value is set with the binder's SQL type.
+   * 
+   * @param stmt The prepared statement on which to set the parameter.
+   * @param parameterIndex The one-based index of the parameter.
+   * @param value The parameter value. This may be null.
+   * @throws SQLException Thrown if an error occurs.
+   */
+  public final void bind(PreparedStatement stmt, int parameterIndex, T value) throws SQLException {
+    if(Objects.isNull(value)) {
+      stmt.setNull(parameterIndex, sqlType);
+    }
+    else {
+      bindValue(stmt, parameterIndex, value);
+    }
+  }
+
+  /**
+   * Returns the java.sql.Types value that the binder uses for the parameter.
+   */
+  public int getSqlType() {
+    return sqlType;
+  }
+
+  /**
+   * Sets a value that is not null.
+   */
+  protected abstract void bindValue(PreparedStatement stmt, int parameterIndex, T value)
+      throws SQLException;
+}
@@ -0,0 +1,86 @@
+/**
+ * 
+ */
+package provided.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * The {@link EntityMapper} used for classes that have no generated mapper. Rows are mapped by a
+ * {@link ReflectiveRowMapper}, and fields are read for binding through method handles.
+ * 
+ * @author Promineo
+ *
+ * @param <T> The entity class.
+ */
+class ReflectiveEntityMapper<T> implements EntityMapper<T> {
+  private final Class<T> classType;
+
+  ReflectiveEntityMapper(Class<T> classType) {
+    this.classType = classType;
+  }
+
+  @Override
+  public Class<T> entityType() {
+    return classType;
+  }
+
+  @Override
+  public RowMapper<T> rowMapper(ResultSetMetaData metaData) throws SQLException {
+    try {
+      return new ReflectiveRowMapper<>(classType, metaData);
+    }
+    catch(ReflectiveOperationException e) {
+      throw new SQLException("Unable to create row mapper for type " + classType.getName(), e);
+    }
+  }
+
+  @Override
+  public ColumnBinder<T> columnBinder(String column) {
+    for(Field field : classType.getDeclaredFields()) {
+      if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+          || !DaoBase.camelCaseToSnakeCase(field.getName()).equals(column)) {
+        continue;
+      }
+
+      @SuppressWarnings("unchecked")
+      ParameterBinder<Object> binder =
+          (ParameterBinder<Object>)ParameterBinder.forClass(field.getType());
+      MethodHandle getter;
+
+      try {
+        field.setAccessible(true);
+        getter = MethodHandles.lookup().unreflectGetter(field)
+            .asType(MethodType.methodType(Object.class, Object.class));
+      }
+      catch(IllegalAccessException e) {
+        throw new DaoBase.DaoException("Unable to read field " + field.getName(), e);
+      }
+
+      return (stmt, parameterIndex, entity) -> {
+        Object value;
+
+        try {
+          value = getter.invokeExact((Object)Objects.requireNonNull(entity));
+        }
+        catch(RuntimeException | Error e) {
+          throw e;
+        }
+        catch(Throwable e) {
+          throw new SQLException("Unable to read field " + field.getName(), e);
+        }
+
+        binder.bind(stmt, parameterIndex, value);
+      };
+    }
+
+    return null;
+  }
+}
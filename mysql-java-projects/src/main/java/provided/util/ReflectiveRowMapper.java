@@ -0,0 +1,161 @@
+/**
+ *
+ */
+package provided.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link RowMapper} that populates an object's fields using a plan that is worked out once for a
+ * given class and result set layout. Building the plan does all of the reflective work: the
+ * constructor and field setters are turned into method handles, each field name is converted to a
+ * column name, and the column name is resolved to a column index. Fields that have no matching
+ * column are left out of the plan, so they are skipped without a failed lookup on every row.
+ *
+ * @author Promineo
+ *
+ * @param <T> The type of object created from each row.
+ */
+class ReflectiveRowMapper<T> implements RowMapper<T> {
+  private final MethodHandle constructor;
+  private final int[] columnIndexes;
+  private final MethodHandle[] setters;
+  private final Converter[] converters;
+
+  /**
+   * Builds the mapping plan.
+   *
+   * @param classType The class to create. It must have a public zero-argument constructor.
+   * @param metaData The metadata of the result set that will be mapped.
+   * @throws SQLException Thrown if the metadata cannot be read.
+   * @throws ReflectiveOperationException Thrown if the constructor or a field cannot be accessed.
+   */
+  ReflectiveRowMapper(Class<T> classType, ResultSetMetaData metaData)
+      throws SQLException, ReflectiveOperationException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    this.constructor = lookup.findConstructor(classType, MethodType.methodType(void.class))
+        .asType(MethodType.methodType(Object.class));
+
+    Map<String, Integer> columns = EntityMapper.columnIndexes(metaData);
+    List<Integer> indexes = new ArrayList<>();
+    List<MethodHandle> fieldSetters = new ArrayList<>();
+    List<Converter> fieldConverters = new ArrayList<>();
+
+    for(Field field : classType.getDeclaredFields()) {
+      if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+        continue;
+      }
+
+      Integer index = columns.get(DaoBase.camelCaseToSnakeCase(field.getName()));
+
+      /*
+       * If the field isn't in the result set, leave it out of the plan. This preserves instance
+       * variables (like lists) that are assigned values when the object is created.
+       */
+      if(Objects.isNull(index)) {
+        continue;
+      }
+
+      /*
+       * Set the field accessible flag once, which means that we can populate even private fields
+       * without using the setter.
+       */
+      field.setAccessible(true);
+
+      indexes.add(index);
+      fieldSetters.add(lookup.unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+      fieldConverters.add(Converter.forType(field.getType()));
+    }
+
+    this.columnIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+    this.setters = fieldSetters.toArray(new MethodHandle[0]);
+    this.converters = fieldConverters.toArray(new Converter[0]);
+  }
+
+  @Override
+  public T map(ResultSet rs) throws SQLException {
+    try {
+      @SuppressWarnings("unchecked")
+      T obj = (T)constructor.invokeExact();
+
+      for(int i = 0; i < columnIndexes.length; i++) {
+        Object fieldValue = rs.getObject(columnIndexes[i]);
+
+        /*
+         * Only set the value in the object if the column is not null, which matches the behavior
+         * of leaving a field's initial value in place.
+         */
+        if(Objects.nonNull(fieldValue)) {
+          setters[i].invokeExact(obj, converters[i].convert(fieldValue));
+        }
+      }
+
+      return obj;
+    }
+    catch(SQLException | RuntimeException | Error e) {
+      throw e;
+    }
+    catch(Throwable e) {
+      throw new SQLException("Unable to map row", e);
+    }
+  }
+
+  /**
+   * Converts a value returned by the driver into the type of the field it is assigned to. The
+   * converter is chosen once per field when the plan is built.
+   */
+  @FunctionalInterface
+  private interface Converter {
+    Converter IDENTITY = value -> value;
+
+    /*
+     * Convert the following types: Time -> LocalTime, Date -> LocalDate, and Timestamp ->
+     * LocalDateTime.
+     */
+    Converter TO_LOCAL_TIME =
+        value -> value instanceof Time ? ((Time)value).toLocalTime() : value;
+
+    Converter TO_LOCAL_DATE =
+        value -> value instanceof Date ? ((Date)value).toLocalDate() : value;
+
+    Converter TO_LOCAL_DATE_TIME =
+        value -> value instanceof Timestamp ? ((Timestamp)value).toLocalDateTime() : value;
+
+    Object convert(Object value);
+
+    static Converter forType(Class<?> fieldType) {
+      if(LocalTime.class.equals(fieldType)) {
+        return TO_LOCAL_TIME;
+      }
+
+      if(LocalDate.class.equals(fieldType)) {
+        return TO_LOCAL_DATE;
+      }
+
+      if(LocalDateTime.class.equals(fieldType)) {
+        return TO_LOCAL_DATE_TIME;
+      }
+
+      return IDENTITY;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package provided.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converts the current row of a result set into an object. A row mapper is bound to the column
+ * layout of the result set it was created for, so it can be reused for every row of that result
+ * set (and of any other result set with the same columns) without looking anything up again.
+ *
+ * @author Promineo
+ *
+ * @param <T> The type of object created from each row.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+  /**
+   * Creates an object from the row on which the result set is positioned.
+   *
+   * @param rs The result set. The caller must position it on the correct row.
+   * @return The populated object.
+   * @throws SQLException Thrown if a column value cannot be read.
+   */
+  T map(ResultSet rs) throws SQLException;
+}
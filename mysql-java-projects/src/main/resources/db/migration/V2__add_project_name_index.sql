@@ -0,0 +1,3 @@
+-- Project listings and keyset pages are ordered by (project_name, project_id). The index is built online:
+-- the table stays readable and writable while it is built.
+ALTER TABLE project ADD INDEX idx_project_name (project_name, project_id), ALGORITHM=INPLACE, LOCK=NONE;
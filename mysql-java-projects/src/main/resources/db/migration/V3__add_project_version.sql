@@ -0,0 +1,4 @@
+-- A version number for optimistic locking. Every update of a project increments it, and an update that is
+-- made with an older version than the row has is rejected. Adding the column only changes the table's
+-- metadata, so existing rows are not rewritten.
+ALTER TABLE project ADD COLUMN version INT NOT NULL DEFAULT 0, ALGORITHM=INSTANT;
@@ -0,0 +1,4 @@
+-- Projects are looked up by category through this index. It holds both columns, so "projects in category X"
+-- pages and per-category counts are read from the index alone. It replaces the index that the category_id
+-- foreign key created on its own.
+ALTER TABLE project_category ADD INDEX idx_category_project (category_id, project_id), ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,2 @@
+-- A project's steps are read in step order. The index is built online.
+ALTER TABLE step ADD INDEX idx_step_project_order (project_id, step_order), ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,18 @@
+-- Category names are made unique by V7, which fails if two categories already have the same name. Each set
+-- of categories with the same name (compared with the column's collation, as the unique index compares
+-- them) is merged into the one with the lowest ID: its projects are linked to that category and the other
+-- categories are deleted, which removes their links through the ON DELETE CASCADE foreign key. Both
+-- statements can be run again, so the script can be re-run if it is interrupted.
+
+INSERT IGNORE INTO project_category (project_id, category_id)
+SELECT pc.project_id, keep.category_id
+FROM project_category pc
+JOIN category c ON c.category_id = pc.category_id
+JOIN (SELECT category_name, MIN(category_id) AS category_id FROM category GROUP BY category_name) keep
+ON keep.category_name = c.category_name AND keep.category_id < c.category_id;
+
+-- The grouped derived table is materialized, so the delete doesn't read the table it deletes from
+DELETE c
+FROM category c
+JOIN (SELECT category_name, MIN(category_id) AS category_id FROM category GROUP BY category_name) keep
+ON keep.category_name = c.category_name AND keep.category_id < c.category_id;
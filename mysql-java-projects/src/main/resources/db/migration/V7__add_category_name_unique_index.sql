@@ -0,0 +1,2 @@
+-- Category names identify categories. Duplicate names were merged by V6. The index is built online.
+ALTER TABLE category ADD UNIQUE INDEX uk_category_name (category_name), ALGORITHM=INPLACE, LOCK=NONE;
@@ -1,3 +1,9 @@
+-- Recreates the projects database from scratch with sample data. It deletes every existing row. To update a
+-- database while keeping its data, run projects.dao.MigrationRunner instead, which applies the versioned
+-- scripts in db/migration. The indexes and the project version column are added by those scripts, which
+-- ProjectsApp applies when it starts (or run the migration runner after this script).
+
+DROP TABLE IF EXISTS schema_version;
 DROP TABLE IF EXISTS material;
 DROP TABLE IF EXISTS step;
 DROP TABLE IF EXISTS project_category;
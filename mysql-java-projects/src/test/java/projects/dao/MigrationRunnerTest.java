@@ -0,0 +1,80 @@
+package projects.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import projects.exception.DbException;
+
+/*
+ * Tests how MigrationRunner parses scripts and names. Applying the scripts needs a database, so it isn't covered here.
+ */
+
+class MigrationRunnerTest {
+	@Test
+	void statementsEndWithASemicolonAtTheEndOfALine() {
+		String script = "CREATE TABLE a (\n  id INT NOT NULL\n);\n\nINSERT INTO a VALUES (1);\n";
+
+		assertEquals(List.of("CREATE TABLE a (\nid INT NOT NULL\n)", "INSERT INTO a VALUES (1)"),
+				MigrationRunner.splitStatements(script));
+	}
+
+	@Test
+	void commentsAndBlankLinesAreRemoved() {
+		String script = "-- Adds a table\n\n  -- indented comment\nCREATE TABLE a (id INT);\n-- trailing comment\n";
+
+		assertEquals(List.of("CREATE TABLE a (id INT)"), MigrationRunner.splitStatements(script));
+	}
+
+	@Test
+	void semicolonInsideALineDoesNotEndAStatement() {
+		String script = "INSERT INTO a VALUES ('x;y'), \n('z');";
+
+		assertEquals(List.of("INSERT INTO a VALUES ('x;y'),\n('z')"), MigrationRunner.splitStatements(script));
+	}
+
+	@Test
+	void lastStatementMayOmitTheSemicolon() {
+		assertEquals(List.of("SELECT 1", "SELECT 2"), MigrationRunner.splitStatements("SELECT 1;\nSELECT 2\n"));
+	}
+
+	@Test
+	void windowsLineEndingsAreAccepted() {
+		assertEquals(List.of("SELECT 1\nFROM a", "SELECT 2"), MigrationRunner.splitStatements("SELECT 1\r\nFROM a;\r\nSELECT 2;\r\n"));
+	}
+
+	@Test
+	void emptyScriptHasNoStatements() {
+		assertEquals(List.of(), MigrationRunner.splitStatements("-- nothing yet\n\n"));
+	}
+
+	@Test
+	void checksumIgnoresCommentsAndFormatting() {
+		List<String> plain = MigrationRunner.splitStatements("CREATE TABLE a (id INT);\nDROP TABLE b;\n");
+		List<String> formatted = MigrationRunner.splitStatements("-- Comment\r\n  CREATE TABLE a (id INT);\r\n\r\nDROP TABLE b;");
+
+		assertEquals(MigrationRunner.checksum(plain), MigrationRunner.checksum(formatted));
+	}
+
+	@Test
+	void checksumChangesWithTheStatements() {
+		long original = MigrationRunner.checksum(List.of("CREATE TABLE a (id INT)"));
+
+		assertNotEquals(original, MigrationRunner.checksum(List.of("CREATE TABLE a (id BIGINT)")));
+		assertNotEquals(original, MigrationRunner.checksum(List.of("CREATE TABLE a (id INT)", "DROP TABLE b")));
+	}
+
+	@Test
+	void versionIsTheNumberAfterTheV() {
+		assertEquals(1, MigrationRunner.versionOf("V1__create_tables.sql"));
+		assertEquals(12, MigrationRunner.versionOf("V12__add_index.sql"));
+	}
+
+	@Test
+	void invalidNamesAreRejected() {
+		assertThrows(DbException.class, () -> MigrationRunner.versionOf("create_tables.sql"));
+		assertThrows(DbException.class, () -> MigrationRunner.versionOf("V__create_tables.sql"));
+	}
+}
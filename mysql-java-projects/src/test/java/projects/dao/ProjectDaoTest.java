@@ -0,0 +1,40 @@
+package projects.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests the IN-list padding of ProjectDao. The queries themselves need a database, so they aren't covered here.
+ */
+
+class ProjectDaoTest {
+	@Test
+	void listsArePaddedToTheNextPowerOfTwo() {
+		assertEquals(1, ProjectDao.inListSize(1));
+		assertEquals(2, ProjectDao.inListSize(2));
+		assertEquals(4, ProjectDao.inListSize(3));
+		assertEquals(4, ProjectDao.inListSize(4));
+		assertEquals(8, ProjectDao.inListSize(5));
+		assertEquals(512, ProjectDao.inListSize(512));
+	}
+
+	@Test
+	void paddingStopsAtTheChunkSize() {
+		assertEquals(1000, ProjectDao.inListSize(513));
+		assertEquals(1000, ProjectDao.inListSize(1000));
+	}
+
+	@Test
+	void listsOutsideThePaddedRangeAreNotPadded() {
+		assertEquals(0, ProjectDao.inListSize(0));
+		assertEquals(1001, ProjectDao.inListSize(1001));
+	}
+
+	@Test
+	void placeholdersCoverThePaddedList() {
+		assertEquals("?", ProjectDao.placeholders(1));
+		assertEquals("?, ?, ?, ?", ProjectDao.placeholders(3));
+		assertEquals(1000, ProjectDao.placeholders(700).split(", ").length);
+	}
+}
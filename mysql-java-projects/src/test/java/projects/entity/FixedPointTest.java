@@ -0,0 +1,51 @@
+package projects.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the conversions and sums of {@link FixedPoint}.
+ */
+class FixedPointTest {
+  @Test
+  void convertsHundredthsToATwoPlaceDecimal() {
+    assertEquals(new BigDecimal("12.34"), FixedPoint.toBigDecimal(1234));
+    assertEquals(new BigDecimal("0.05"), FixedPoint.toBigDecimal(5));
+    assertEquals(new BigDecimal("-1.50"), FixedPoint.toBigDecimal(-150));
+    assertEquals(new BigDecimal("0.00"), FixedPoint.toBigDecimal(0));
+  }
+
+  @Test
+  void nullConvertsToNull() {
+    assertNull(FixedPoint.toBigDecimal(FixedPoint.NULL));
+    assertTrue(FixedPoint.isNull(FixedPoint.NULL));
+    assertFalse(FixedPoint.isNull(0));
+  }
+
+  @Test
+  void addSkipsNullLikeSqlSum() {
+    long sum = FixedPoint.add(0, 250);
+    sum = FixedPoint.add(sum, FixedPoint.NULL);
+    sum = FixedPoint.add(sum, 125);
+
+    assertEquals(375, sum);
+  }
+
+  @Test
+  void addFailsOnOverflow() {
+    assertThrows(ArithmeticException.class, () -> FixedPoint.add(Long.MAX_VALUE, 1));
+  }
+
+  @Test
+  void formatsLikeTheDecimal() {
+    assertEquals("99999.99", FixedPoint.toString(9_999_999));
+    assertEquals("0.10", FixedPoint.toString(10));
+    assertEquals("null", FixedPoint.toString(FixedPoint.NULL));
+  }
+}
@@ -0,0 +1,107 @@
+package projects.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests the bucket math and percentiles of LatencyHistogram
+ */
+
+class LatencyHistogramTest {
+	@Test
+	void smallValuesHaveTheirOwnBuckets() {
+		for (int value = 0; value < 16; value++) {
+			assertEquals(value, LatencyHistogram.bucketIndex(value));
+			assertEquals(value, LatencyHistogram.bucketUpperBound(value));
+		}
+	}
+
+	@Test
+	void everyValueFallsInsideItsBucket() {
+		for (long value = 0; value < 100_000; value++) {
+			assertInsideBucket(value);
+		}
+
+		for (int shift = 0; shift < 63; shift++) {
+			long power = 1L << shift;
+
+			assertInsideBucket(power - 1);
+			assertInsideBucket(power);
+			assertInsideBucket(power + 1);
+		}
+
+		assertInsideBucket(Long.MAX_VALUE);
+	}
+
+	@Test
+	void bucketsAreWithinOneSixteenthOfTheirValues() {
+		for (long value = 16; value < 1L << 40; value = value * 3 / 2 + 1) {
+			long upperBound = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+
+			assertTrue(upperBound - value <= value / 16, "value " + value + ", upper bound " + upperBound);
+		}
+	}
+
+	@Test
+	void largestValueUsesTheLastBucket() {
+		int index = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(index));
+		assertEquals(LatencyHistogram.bucketIndex(Long.MAX_VALUE - 1), index);
+	}
+
+	@Test
+	void percentilesAreReportedWithinTheBucketError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value);
+		}
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(500.5, snapshot.getMeanNanos());
+		assertEquals(1000, snapshot.getMaxNanos());
+		assertEquals(1000, snapshot.getPercentileNanos(100));
+		assertEquals(1, snapshot.getPercentileNanos(0));
+
+		long median = snapshot.getPercentileNanos(50);
+		long p99 = snapshot.getPercentileNanos(99);
+
+		assertTrue(median >= 500 && median <= 500 + 500 / 16, "median " + median);
+		assertTrue(p99 >= 990 && p99 <= 1000, "p99 " + p99);
+	}
+
+	@Test
+	void negativeValuesAreRecordedAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+		assertEquals(1, snapshot.getCount());
+		assertEquals(0, snapshot.getPercentileNanos(50));
+	}
+
+	@Test
+	void emptySnapshotReportsZero() {
+		LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMeanNanos());
+		assertEquals(0, snapshot.getPercentileNanos(99));
+	}
+
+	private static void assertInsideBucket(long value) {
+		int index = LatencyHistogram.bucketIndex(value);
+
+		assertTrue(value <= LatencyHistogram.bucketUpperBound(index), "value " + value + " is above bucket " + index);
+
+		if (index > 0) {
+			assertTrue(value > LatencyHistogram.bucketUpperBound(index - 1), "value " + value + " belongs below bucket " + index);
+		}
+	}
+}
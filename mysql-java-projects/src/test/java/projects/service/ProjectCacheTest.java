@@ -0,0 +1,123 @@
+package projects.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import projects.entity.Project;
+
+/*
+ * Tests the eviction, expiry and invalidation rules of ProjectCache
+ */
+
+class ProjectCacheTest {
+	// The estimated weight of a project with a one-character name and no children
+	private static final long PROJECT_WEIGHT = 162;
+
+	@Test
+	void leastRecentlyUsedProjectIsEvictedOverTheWeight() {
+		ProjectCache cache = new ProjectCache(2 * PROJECT_WEIGHT + 1, 60_000);
+		Project first = project(1);
+		Project second = project(2);
+		Project third = project(3);
+
+		cache.put(first, cache.startLoad());
+		cache.put(second, cache.startLoad());
+
+		// Reading the first project makes the second the least recently used
+		assertSame(first, cache.get(1));
+
+		cache.put(third, cache.startLoad());
+
+		assertNull(cache.get(2));
+		assertSame(first, cache.get(1));
+		assertSame(third, cache.get(3));
+
+		CacheStats stats = cache.getStats();
+
+		assertEquals(1, stats.getEvictions());
+		assertEquals(2, stats.getSize());
+		assertEquals(2 * PROJECT_WEIGHT, stats.getWeight());
+	}
+
+	@Test
+	void projectHeavierThanTheCacheIsNotCached() {
+		ProjectCache cache = new ProjectCache(PROJECT_WEIGHT - 1, 60_000);
+
+		cache.put(project(1), cache.startLoad());
+
+		assertNull(cache.get(1));
+		assertEquals(0, cache.getStats().getWeight());
+	}
+
+	@Test
+	void replacingAProjectKeepsTheWeight() {
+		ProjectCache cache = new ProjectCache(10_000, 60_000);
+		Project replacement = project(1);
+
+		cache.put(project(1), cache.startLoad());
+		cache.put(replacement, cache.startLoad());
+
+		assertSame(replacement, cache.get(1));
+		assertEquals(PROJECT_WEIGHT, cache.getStats().getWeight());
+	}
+
+	@Test
+	void expiredProjectIsRemoved() throws InterruptedException {
+		ProjectCache cache = new ProjectCache(10_000, 1);
+
+		cache.put(project(1), cache.startLoad());
+		Thread.sleep(10);
+
+		assertNull(cache.get(1));
+
+		CacheStats stats = cache.getStats();
+
+		assertEquals(1, stats.getExpirations());
+		assertEquals(1, stats.getMisses());
+		assertEquals(0, stats.getSize());
+		assertEquals(0, stats.getWeight());
+	}
+
+	@Test
+	void loadThatRacedAnInvalidationIsNotCached() {
+		ProjectCache cache = new ProjectCache(10_000, 60_000);
+		long load = cache.startLoad();
+
+		cache.invalidate(1);
+		cache.put(project(1), load);
+		cache.put(project(2), load);
+
+		assertNull(cache.get(1));
+		assertEquals(2, cache.get(2).getProjectId());
+
+		cache.put(project(1), cache.startLoad());
+
+		assertEquals(1, cache.get(1).getProjectId());
+	}
+
+	@Test
+	void loadThatRacedInvalidateAllIsNotCached() {
+		ProjectCache cache = new ProjectCache(10_000, 60_000);
+
+		cache.put(project(1), cache.startLoad());
+
+		long load = cache.startLoad();
+
+		cache.invalidateAll();
+		cache.put(project(2), load);
+
+		assertNull(cache.get(1));
+		assertNull(cache.get(2));
+		assertEquals(1, cache.getStats().getInvalidations());
+	}
+
+	private static Project project(int projectId) {
+		Project project = new Project();
+		project.setProjectId(projectId);
+		project.setProjectName("P");
+
+		return project;
+	}
+}